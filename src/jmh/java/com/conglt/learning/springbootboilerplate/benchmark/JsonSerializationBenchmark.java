@@ -0,0 +1,146 @@
+package com.conglt.learning.springbootboilerplate.benchmark;
+
+import com.conglt.learning.springbootboilerplate.configuration.MessageConfiguration;
+import com.conglt.learning.springbootboilerplate.json.JsonWriters;
+import com.conglt.learning.springbootboilerplate.model.Category;
+import com.conglt.learning.springbootboilerplate.model.Product;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of Product and Category lists of different sizes.
+ * {@code DEFAULT} is the previous mapper (plain ObjectMapper + JavaTimeModule), {@code TUNED} the application's
+ * ({@link MessageConfiguration}, with Blackbird). Each is measured through {@code writeValueAsBytes}, a reused
+ * {@link ObjectWriter}, and a streaming {@link JsonGenerator} writing element by element to a discarding stream.
+ * Products reference one of ten categories, as returned by the entity-based endpoints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    @Param({"DEFAULT", "TUNED"})
+    public String mapper;
+
+    private ObjectMapper objectMapper;
+    private JsonWriters jsonWriters;
+    private ObjectWriter productListWriter;
+    private ObjectWriter productWriter;
+    private List<Product> products;
+    private List<Category> categories;
+
+    @Setup
+    public void setUp() {
+        objectMapper = "TUNED".equals(mapper)
+                ? new MessageConfiguration().objectMapper()
+                : new ObjectMapper().registerModule(new JavaTimeModule()).disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        jsonWriters = new JsonWriters(objectMapper);
+        productListWriter = jsonWriters.forListOf(Product.class);
+        productWriter = jsonWriters.forType(Product.class);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Category> categoryPool = new ArrayList<>();
+        for (long i = 1; i <= 10; i++) {
+            categoryPool.add(category(i, now));
+        }
+
+        products = new ArrayList<>(size);
+        categories = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            Product product = new Product();
+            product.setId((long) i);
+            product.setName("Product " + i);
+            product.setDescription("Description of product " + i + " with a few more words to look realistic");
+            product.setPrice(BigDecimal.valueOf(i % 1000, 2).add(BigDecimal.TEN));
+            product.setStock(i % 500);
+            product.setImageUrl("https://cdn.example.com/products/" + i + ".jpg");
+            product.setCategory(categoryPool.get(i % categoryPool.size()));
+            product.setCreatedAt(now);
+            product.setUpdatedAt(now);
+            products.add(product);
+            categories.add(category(i, now));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeProducts() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public byte[] serializeProductsWithWriter() throws JsonProcessingException {
+        return productListWriter.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public void streamProducts(Blackhole blackhole) throws IOException {
+        try (JsonGenerator generator = jsonWriters.createGenerator(new DiscardingOutputStream(blackhole))) {
+            generator.writeStartArray();
+            for (Product product : products) {
+                productWriter.writeValue(generator, product);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeCategories() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(categories);
+    }
+
+    //nhu socket: nhan byte roi bo, de so sanh streaming voi viec gom ca mang vao byte[]
+    private static final class DiscardingOutputStream extends OutputStream {
+
+        private final Blackhole blackhole;
+
+        private DiscardingOutputStream(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(int b) {
+            blackhole.consume(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            blackhole.consume(b);
+            blackhole.consume(len);
+        }
+    }
+
+    private static Category category(long id, LocalDateTime now) {
+        return Category.builder()
+                .id(id)
+                .name("Category " + id)
+                .description("Description of category " + id)
+                .icon("fa-box")
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+}
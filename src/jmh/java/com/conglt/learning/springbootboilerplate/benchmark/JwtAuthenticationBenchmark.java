@@ -0,0 +1,86 @@
+package com.conglt.learning.springbootboilerplate.benchmark;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.conglt.learning.springbootboilerplate.security.jwt.JwtPrincipal;
+import com.conglt.learning.springbootboilerplate.security.jwt.JwtTokenCache;
+import com.conglt.learning.springbootboilerplate.security.jwt.JwtTokenProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request authentication cost of JwtAuthenticationFilter.
+ * <ul>
+ *     <li>{@code legacyTripleVerification}: the previous filter path, validateToken (two verifications,
+ *     one through isTokenExpired) followed by getSubjectFromToken, each rebuilding the algorithm and verifier</li>
+ *     <li>{@code verifyOnce}: a single verification with the shared verifier</li>
+ *     <li>{@code cachedVerification}: a repeat request served from {@link JwtTokenCache}</li>
+ *     <li>{@code generateToken}: minting a token at login</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtAuthenticationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-change-in-production";
+    private static final String ISSUER = "springboot-boilerplate";
+
+    private JwtTokenProvider jwtTokenProvider;
+    private JwtTokenCache jwtTokenCache;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtTokenProvider = new JwtTokenProvider(SECRET, ISSUER, 60);
+        jwtTokenCache = new JwtTokenCache(jwtTokenProvider, true, 10_000);
+        token = jwtTokenProvider.generateToken("benchmark-user", 1L);
+        jwtTokenCache.resolve(token);
+    }
+
+    @Benchmark
+    public String legacyTripleVerification() {
+        if (legacyValidateToken(token)) {
+            return legacyVerify(token).getSubject();
+        }
+        return null;
+    }
+
+    @Benchmark
+    public String verifyOnce() {
+        return jwtTokenProvider.verifyToken(token).map(JwtPrincipal::subject).orElse(null);
+    }
+
+    @Benchmark
+    public String cachedVerification() {
+        return jwtTokenCache.resolve(token).map(JwtPrincipal::subject).orElse(null);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenProvider.generateToken("benchmark-user", 1L);
+    }
+
+    private static boolean legacyValidateToken(String token) {
+        legacyVerify(token);
+        return !legacyVerify(token).getExpiresAt().before(Date.from(Instant.now()));
+    }
+
+    private static DecodedJWT legacyVerify(String token) {
+        Algorithm algorithm = Algorithm.HMAC256(SECRET);
+        return JWT.require(algorithm)
+                .withIssuer(ISSUER)
+                .build()
+                .verify(token);
+    }
+}
@@ -0,0 +1,150 @@
+package com.conglt.learning.springbootboilerplate.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.JsonEncoder;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import com.conglt.learning.springbootboilerplate.logging.RateLimitingTurboFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time a request thread spends in one log call, with 8 threads logging at once:
+ * <ul>
+ *     <li>{@code SYNC_PATTERN}: the local setup, a synchronous appender writing formatted text</li>
+ *     <li>{@code ASYNC_PATTERN}: the same encoder behind a non-blocking {@link AsyncAppender}</li>
+ *     <li>{@code ASYNC_JSON}: the prod setup, JSON behind the async appender (logback's {@link JsonEncoder}
+ *     stands in for Spring Boot's ECS encoder, which needs a Spring environment)</li>
+ * </ul>
+ * Output goes to a temporary file, which blocks less than a terminal, so the sync numbers are a lower bound.
+ * {@code rateLimitedHealthCheck} logs a message covered by {@link RateLimitingTurboFilter}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(8)
+public class LoggingBenchmark {
+
+    public enum Pipeline {
+        SYNC_PATTERN, ASYNC_PATTERN, ASYNC_JSON
+    }
+
+    @Param({"SYNC_PATTERN", "ASYNC_PATTERN", "ASYNC_JSON"})
+    public Pipeline pipeline;
+
+    private LoggerContext context;
+    private Path logFile;
+    private Logger requestLogger;
+    private Logger healthLogger;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        logFile = Files.createTempFile("logging-benchmark", ".log");
+        context = new LoggerContext();
+        context.setName("logging-benchmark");
+
+        RateLimitingTurboFilter rateLimit = new RateLimitingTurboFilter();
+        rateLimit.setContext(context);
+        rateLimit.setLoggers("benchmark.HealthController");
+        rateLimit.setPermitsPerSecond(1);
+        rateLimit.setBurst(5);
+        rateLimit.start();
+        context.addTurboFilter(rateLimit);
+
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setName("FILE");
+        file.setFile(logFile.toString());
+        file.setEncoder(pipeline == Pipeline.ASYNC_JSON ? jsonEncoder() : patternEncoder());
+        file.start();
+
+        Appender<ILoggingEvent> appender = file;
+        if (pipeline != Pipeline.SYNC_PATTERN) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setName("ASYNC");
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(1638);
+            async.setNeverBlock(true);
+            async.setIncludeCallerData(false);
+            async.addAppender(file);
+            async.start();
+            appender = async;
+        }
+
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(ch.qos.logback.classic.Level.INFO);
+        root.addAppender(appender);
+        requestLogger = context.getLogger("benchmark.LoginController");
+        healthLogger = context.getLogger("benchmark.HealthController");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.stop();
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public void requestLog(RequestThread thread) {
+        requestLogger.info("User logged in successfully: {}", "benchmark-user");
+    }
+
+    @Benchmark
+    public void rateLimitedHealthCheck(RequestThread thread) {
+        healthLogger.info("Health check endpoint accessed");
+    }
+
+    /**
+     * Each benchmark thread carries a request id in its MDC, as request threads do.
+     */
+    @State(Scope.Thread)
+    public static class RequestThread {
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            MDC.put("requestId", Long.toHexString(Thread.currentThread().threadId()));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            MDC.clear();
+        }
+    }
+
+    private Encoder<ILoggingEvent> patternEncoder() {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        // gan giong CONSOLE_LOG_PATTERN mac dinh cua Spring Boot
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%t] %-40.40logger{39} : %m%n");
+        encoder.start();
+        return encoder;
+    }
+
+    private Encoder<ILoggingEvent> jsonEncoder() {
+        JsonEncoder encoder = new JsonEncoder();
+        encoder.setContext(context);
+        encoder.start();
+        return encoder;
+    }
+}
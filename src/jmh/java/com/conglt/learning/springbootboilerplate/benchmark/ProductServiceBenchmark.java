@@ -0,0 +1,125 @@
+package com.conglt.learning.springbootboilerplate.benchmark;
+
+import com.conglt.learning.springbootboilerplate.SpringbootBoilerplateApplication;
+import com.conglt.learning.springbootboilerplate.dto.CursorPage;
+import com.conglt.learning.springbootboilerplate.dto.ProductView;
+import com.conglt.learning.springbootboilerplate.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ProductServiceImpl reads through the full Spring/JPA stack against an in-memory H2 database in
+ * PostgreSQL mode, so no database server or container is needed.
+ * Flyway is off (the migrations use PostgreSQL-only features such as tsvector); Hibernate creates the
+ * schema and the setup seeds {@value #CATEGORIES} categories and {@value #PRODUCTS} products.
+ * Absolute numbers are not comparable with PostgreSQL, but regressions in the query shape
+ * (extra selects, entity loading instead of projections) show up clearly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductServiceBenchmark {
+
+    private static final int CATEGORIES = 20;
+    private static final int PRODUCTS = 20_000;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private String midCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(SpringbootBoilerplateApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.show-sql=false",
+                        "spring.flyway.enabled=false",
+                        "spring.devtools.restart.enabled=false",
+                        "audit.enabled=false",
+                        "logging.level.root=WARN",
+                        "logging.level.com.conglt.learning.springbootboilerplate=WARN")
+                .run();
+        productService = context.getBean(ProductService.class);
+        seed(context.getBean(JdbcTemplate.class));
+
+        CursorPage<ProductView> page = productService.getProductPage(null, PRODUCTS / 2);
+        midCursor = page.getNextCursor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public CursorPage<ProductView> firstPage() {
+        return productService.getProductPage(null, 50);
+    }
+
+    @Benchmark
+    public CursorPage<ProductView> pageInTheMiddle() {
+        return productService.getProductPage(midCursor, 50);
+    }
+
+    @Benchmark
+    public List<ProductView> productsByCategory() {
+        return productService.getProductsByCategoryId(ThreadLocalRandom.current().nextLong(1, CATEGORIES + 1));
+    }
+
+    @Benchmark
+    public ProductView productByIdCached() {
+        return productService.getProductViewById(ThreadLocalRandom.current().nextLong(1, 101));
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> categories = new ArrayList<>();
+        for (int i = 1; i <= CATEGORIES; i++) {
+            categories.add(new Object[]{"Category " + i, "Description of category " + i, now, now});
+        }
+        //danh muc goc: path = '/', depth = 0
+        jdbcTemplate.batchUpdate("insert into categories (name, description, path, depth, created_at, updated_at) "
+                + "values (?, ?, '/', 0, ?, ?)", categories);
+
+        List<Object[]> products = new ArrayList<>();
+        for (int i = 1; i <= PRODUCTS; i++) {
+            products.add(new Object[]{
+                    "Product " + i,
+                    "Description of product " + i,
+                    BigDecimal.valueOf(1000 + i % 100_000, 2),
+                    i % 500,
+                    "https://cdn.example.com/products/" + i + ".jpg",
+                    (long) (i % CATEGORIES) + 1,
+                    now,
+                    now
+            });
+        }
+        jdbcTemplate.batchUpdate("insert into products (name, description, price, stock, image_url, category_id, "
+                + "created_at, updated_at) values (?, ?, ?, ?, ?, ?, ?, ?)", products);
+    }
+}
@@ -0,0 +1,71 @@
+package com.conglt.learning.springbootboilerplate.benchmark;
+
+import com.conglt.learning.springbootboilerplate.model.User;
+import com.conglt.learning.springbootboilerplate.model.UserRole;
+import com.conglt.learning.springbootboilerplate.security.dto.RegistrationRequest;
+import com.conglt.learning.springbootboilerplate.security.dto.RegistrationResponse;
+import com.conglt.learning.springbootboilerplate.security.dto.UserAccountResponse;
+import com.conglt.learning.springbootboilerplate.security.mapper.UserMapper;
+import com.conglt.learning.springbootboilerplate.security.mapper.UserMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the MapStruct-generated {@link UserMapper} conversions used by registration and user administration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserMapperBenchmark {
+
+    private UserMapper userMapper;
+    private RegistrationRequest registrationRequest;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        userMapper = new UserMapperImpl();
+        registrationRequest = RegistrationRequest.builder()
+                .username("benchmark-user")
+                .email("benchmark@example.com")
+                .password("benchmark-password")
+                .firstName("Bench")
+                .lastName("Mark")
+                .build();
+        user = User.builder()
+                .id(1L)
+                .username("benchmark-user")
+                .email("benchmark@example.com")
+                .password("$2a$12$abcdefghijklmnopqrstuuJ0Tq3bm5U1xYgkq7pJgH6s9l2m3n4o5")
+                .firstName("Bench")
+                .lastName("Mark")
+                .role(UserRole.ROLE_USER)
+                .isActive(true)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Benchmark
+    public User registrationRequestToUser() {
+        return userMapper.registrationRequestToUser(registrationRequest);
+    }
+
+    @Benchmark
+    public RegistrationResponse userToRegistrationResponse() {
+        return userMapper.userToRegistrationResponse(user);
+    }
+
+    @Benchmark
+    public UserAccountResponse userToAccountResponse() {
+        return userMapper.userToAccountResponse(user);
+    }
+}
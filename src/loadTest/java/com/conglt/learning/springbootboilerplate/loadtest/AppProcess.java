@@ -0,0 +1,99 @@
+package com.conglt.learning.springbootboilerplate.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The packaged application started as a child JVM for a load run.
+ * Uses the usual POSTGRES_* environment, so it runs against the local database; output goes to a log file.
+ */
+final class AppProcess implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private final Process process;
+    private final String baseUrl;
+
+    private AppProcess(Process process, String baseUrl) {
+        this.process = process;
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Start the jar and wait until {@code /health} answers.
+     *
+     * @param jar       the Spring Boot jar
+     * @param port      the HTTP port to use
+     * @param log       where to write the application output
+     * @param arguments extra {@code --key=value} application arguments
+     * @return the running application
+     */
+    static AppProcess start(Path jar, int port, Path log, List<String> arguments) throws IOException, InterruptedException {
+        Files.createDirectories(log.toAbsolutePath().getParent());
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-jar", jar.toString(),
+                "--server.port=" + port,
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.conglt.learning.springbootboilerplate=WARN",
+                "--spring.devtools.restart.enabled=false"));
+        command.addAll(arguments);
+
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        AppProcess app = new AppProcess(process, "http://localhost:" + port);
+        try {
+            app.awaitHealthy();
+        } catch (RuntimeException | InterruptedException e) {
+            app.close();
+            throw e;
+        }
+        return app;
+    }
+
+    String baseUrl() {
+        return baseUrl;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+
+    private void awaitHealthy() throws InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with code " + process.exitValue());
+            }
+            try {
+                HttpResponse<Void> response = client.send(
+                        HttpRequest.newBuilder(URI.create(baseUrl + "/health")).build(),
+                        HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // chua khoi dong xong
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Application did not become healthy within " + STARTUP_TIMEOUT);
+    }
+}
@@ -0,0 +1,150 @@
+package com.conglt.learning.springbootboilerplate.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Data shared by all requests of a run: ids and search terms sampled from the catalog, the load-test
+ * user's credentials and an admin token for writes.
+ */
+final class LoadContext {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final String PASSWORD = "load-test-password";
+
+    private final String baseUrl;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong registrations = new AtomicLong();
+    private final List<Long> productIds = new ArrayList<>();
+    private final List<Long> categoryIds = new ArrayList<>();
+    private final List<String> searchTerms = new ArrayList<>();
+    private String loginBody;
+    private String adminToken;
+
+    private LoadContext(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Register a load-test user, make it an admin and sample the catalog.
+     * Promotion goes through JDBC (POSTGRES_* environment) unless {@code adminUsername}/{@code adminPassword}
+     * are given, since only an admin can grant the role over HTTP.
+     */
+    static LoadContext prepare(String baseUrl, HttpClient client, ObjectMapper objectMapper)
+            throws IOException, InterruptedException, SQLException {
+        LoadContext context = new LoadContext(baseUrl);
+
+        String username = "loadtest-" + context.runId;
+        context.loginBody = "{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}";
+        String adminUsername = System.getProperty("adminUsername");
+        String adminPassword = System.getProperty("adminPassword");
+
+        JsonNode registered = context.send(client, objectMapper, context.post("/register",
+                "{\"username\":\"" + username + "\",\"email\":\"" + username + "@loadtest.local\",\"password\":\""
+                        + PASSWORD + "\"}").build(), 201);
+        String adminLogin;
+        if (adminUsername != null && adminPassword != null) {
+            adminLogin = "{\"username\":\"" + adminUsername + "\",\"password\":\"" + adminPassword + "\"}";
+        } else {
+            promoteToAdmin(registered.get("id").asLong());
+            adminLogin = context.loginBody;
+        }
+        context.adminToken = context.send(client, objectMapper, context.post("/login", adminLogin).build(), 200)
+                .get("token").asText();
+
+        for (JsonNode category : context.send(client, objectMapper, context.get("/api/categories").build(), 200)) {
+            context.categoryIds.add(category.get("id").asLong());
+        }
+        JsonNode page = context.send(client, objectMapper, context.get("/api/products?size=500").build(), 200);
+        for (JsonNode product : page.get("items")) {
+            context.productIds.add(product.get("id").asLong());
+            for (String word : product.get("name").asText().split("\\s+")) {
+                if (word.length() >= 3 && context.searchTerms.size() < 200) {
+                    context.searchTerms.add(word.substring(0, Math.min(word.length(), 5)));
+                }
+            }
+        }
+        if (context.productIds.isEmpty() || context.categoryIds.isEmpty()) {
+            throw new IllegalStateException("The catalog is empty; seed some categories and products before load testing");
+        }
+        return context;
+    }
+
+    HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(Operation.uri(baseUrl, path)).timeout(REQUEST_TIMEOUT).GET();
+    }
+
+    HttpRequest.Builder post(String path, String json) {
+        return HttpRequest.newBuilder(Operation.uri(baseUrl, path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    long randomProductId() {
+        return productIds.get(ThreadLocalRandom.current().nextInt(productIds.size()));
+    }
+
+    long randomCategoryId() {
+        return categoryIds.get(ThreadLocalRandom.current().nextInt(categoryIds.size()));
+    }
+
+    String randomSearchTerm() {
+        String term = searchTerms.isEmpty() ? "pro" : searchTerms.get(ThreadLocalRandom.current().nextInt(searchTerms.size()));
+        return URLEncoder.encode(term, StandardCharsets.UTF_8);
+    }
+
+    String nextUsername() {
+        return "lt-" + runId + "-" + registrations.incrementAndGet();
+    }
+
+    String loginBody() {
+        return loginBody;
+    }
+
+    String adminToken() {
+        return adminToken;
+    }
+
+    private JsonNode send(HttpClient client, ObjectMapper objectMapper, HttpRequest request, int expectedStatus)
+            throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != expectedStatus) {
+            throw new IllegalStateException(request.method() + " " + request.uri() + " answered "
+                    + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private static void promoteToAdmin(long userId) throws SQLException {
+        String url = "jdbc:postgresql://" + env("POSTGRES_HOST", "localhost") + ":" + env("POSTGRES_PORT", "5432")
+                + "/" + env("POSTGRES_DB", "springboot_crud");
+        try (Connection connection = DriverManager.getConnection(url, env("POSTGRES_USER", "haihoan"),
+                env("POSTGRES_PASSWORD", "trinhhaihoan"));
+             PreparedStatement statement = connection.prepareStatement("update users set role = 'ROLE_ADMIN' where id = ?")) {
+            statement.setLong(1, userId);
+            statement.executeUpdate();
+        }
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
@@ -0,0 +1,270 @@
+package com.conglt.learning.springbootboilerplate.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop HTTP load test for the main endpoints.
+ * <p>
+ * Requests are started on a fixed schedule ({@code rate} per second), independent of how fast the
+ * application answers, and each latency is measured from the request's scheduled start. A slow server
+ * therefore shows up as higher latency instead of silently lowering the offered load (no coordinated
+ * omission). Latencies go into one HdrHistogram per operation.
+ * <p>
+ * Without {@code baseUrl} the packaged jar is started against the local database (POSTGRES_* environment).
+ * Settings (system properties, passed as {@code -P} by the {@code loadTest} task):
+ * <ul>
+ *     <li>{@code rate}: requests per second (default 500)</li>
+ *     <li>{@code warmup}, {@code duration}: seconds or ISO-8601 (default 10s / 60s)</li>
+ *     <li>{@code mix}: weights, e.g. {@code products:50,product:15,categories:10,search:10,write:5,login:5,register:5}</li>
+ *     <li>{@code maxInFlight}: requests allowed in flight before new ones are counted as dropped (default 10000)</li>
+ *     <li>{@code baseUrl}, {@code port}, {@code appArgs} (comma separated), {@code report}</li>
+ * </ul>
+ */
+public final class LoadTestRunner {
+
+    private static final String DEFAULT_MIX = "products:50,product:15,categories:10,search:10,write:5,login:5,register:5";
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rate = Integer.getInteger("rate", 500);
+        Duration warmup = duration("warmup", Duration.ofSeconds(10));
+        Duration measure = duration("duration", Duration.ofSeconds(60));
+        int maxInFlight = Integer.getInteger("maxInFlight", 10_000);
+        Map<Operation, Integer> mix = parseMix(System.getProperty("mix", DEFAULT_MIX));
+        Path report = Path.of(System.getProperty("report", "build/reports/loadtest/report.json"));
+
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        String baseUrl = System.getProperty("baseUrl");
+        AppProcess app = null;
+        if (baseUrl == null || baseUrl.isBlank()) {
+            List<String> appArgs = new ArrayList<>();
+            for (String arg : System.getProperty("appArgs", "").split(",")) {
+                if (!arg.isBlank()) {
+                    appArgs.add(arg.trim());
+                }
+            }
+            app = AppProcess.start(Path.of(System.getProperty("app.jar")), Integer.getInteger("port", 18080),
+                    report.resolveSibling("application.log"), appArgs);
+            baseUrl = app.baseUrl();
+        }
+
+        try (HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build()) {
+            LoadContext context = LoadContext.prepare(baseUrl, client, objectMapper);
+
+            System.out.printf(Locale.ROOT, "Warming up for %ds at %d req/s%n", warmup.toSeconds(), rate);
+            run(client, context, mix, rate, warmup, maxInFlight);
+            System.out.printf(Locale.ROOT, "Measuring for %ds at %d req/s, mix %s%n", measure.toSeconds(), rate, mix);
+            RunResult result = run(client, context, mix, rate, measure, maxInFlight);
+
+            print(result);
+            Files.createDirectories(report.toAbsolutePath().getParent());
+            objectMapper.writeValue(report.toFile(), toReport(objectMapper, result, rate, mix, baseUrl));
+            System.out.println("\nReport written to " + report.toAbsolutePath());
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+        }
+    }
+
+    private static RunResult run(HttpClient client, LoadContext context, Map<Operation, Integer> mix, int rate,
+                                 Duration duration, int maxInFlight) throws InterruptedException {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        mix.keySet().forEach(operation -> stats.put(operation, new OperationStats()));
+        Operation[] schedule = weightedSchedule(mix);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicLong dropped = new AtomicLong();
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long total = duration.toSeconds() * rate;
+        long start = System.nanoTime();
+
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < total; i++) {
+                long intendedStart = start + i * intervalNanos;
+                long wait = intendedStart - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (inFlight.get() >= maxInFlight) {
+                    dropped.incrementAndGet();
+                    continue;
+                }
+                Operation operation = schedule[ThreadLocalRandom.current().nextInt(schedule.length)];
+                OperationStats operationStats = stats.get(operation);
+                inFlight.incrementAndGet();
+                requests.submit(() -> {
+                    try {
+                        HttpRequest request = operation.request(context);
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        operationStats.record(intendedStart, response.statusCode() < 400);
+                    } catch (IOException e) {
+                        operationStats.record(intendedStart, false);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+        }
+        return new RunResult(stats, System.nanoTime() - start, dropped.get());
+    }
+
+    private static Operation[] weightedSchedule(Map<Operation, Integer> mix) {
+        List<Operation> slots = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                slots.add(operation);
+            }
+        });
+        return slots.toArray(Operation[]::new);
+    }
+
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry '" + entry + "', expected name:weight");
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(Operation.fromKey(parts[0]), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("The mix must contain at least one operation with a positive weight");
+        }
+        return mix;
+    }
+
+    private static void print(RunResult result) {
+        double seconds = result.elapsedNanos / 1e9;
+        System.out.printf(Locale.ROOT, "%n%-11s %9s %8s %10s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        Histogram all = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        long errors = 0;
+        for (Map.Entry<Operation, OperationStats> entry : result.stats.entrySet()) {
+            Histogram histogram = entry.getValue().histogram;
+            all.add(histogram);
+            errors += entry.getValue().errors.get();
+            printRow(entry.getKey().key(), histogram, entry.getValue().errors.get(), seconds);
+        }
+        printRow("all", all, errors, seconds);
+        if (result.dropped > 0) {
+            System.out.printf(Locale.ROOT, "%d requests were not sent because %s were already in flight%n",
+                    result.dropped, Integer.getInteger("maxInFlight", 10_000));
+        }
+    }
+
+    private static void printRow(String name, Histogram histogram, long errors, double seconds) {
+        System.out.printf(Locale.ROOT, "%-11s %9d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                name, histogram.getTotalCount(), errors, histogram.getTotalCount() / seconds,
+                millis(histogram, 50), millis(histogram, 99), millis(histogram, 99.9), histogram.getMaxValue() / 1e6);
+    }
+
+    private static ObjectNode toReport(ObjectMapper objectMapper, RunResult result, int rate,
+                                       Map<Operation, Integer> mix, String baseUrl) {
+        double seconds = result.elapsedNanos / 1e9;
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("timestamp", Instant.now().toString());
+        root.put("baseUrl", baseUrl);
+        root.put("targetRatePerSecond", rate);
+        root.put("durationSeconds", seconds);
+        root.put("dropped", result.dropped);
+        ObjectNode mixNode = root.putObject("mix");
+        mix.forEach((operation, weight) -> mixNode.put(operation.key(), weight));
+
+        Histogram all = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        long errors = 0;
+        ArrayNode operations = root.putArray("operations");
+        for (Map.Entry<Operation, OperationStats> entry : result.stats.entrySet()) {
+            Histogram histogram = entry.getValue().histogram;
+            all.add(histogram);
+            errors += entry.getValue().errors.get();
+            operations.add(summary(objectMapper, entry.getKey().key(), histogram, entry.getValue().errors.get(), seconds));
+        }
+        root.set("total", summary(objectMapper, "all", all, errors, seconds));
+        return root;
+    }
+
+    private static ObjectNode summary(ObjectMapper objectMapper, String name, Histogram histogram, long errors,
+                                      double seconds) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("operation", name);
+        node.put("requests", histogram.getTotalCount());
+        node.put("errors", errors);
+        node.put("throughputPerSecond", histogram.getTotalCount() / seconds);
+        node.put("p50Millis", millis(histogram, 50));
+        node.put("p90Millis", millis(histogram, 90));
+        node.put("p99Millis", millis(histogram, 99));
+        node.put("p999Millis", millis(histogram, 99.9));
+        node.put("maxMillis", histogram.getMaxValue() / 1e6);
+        return node;
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1e6;
+    }
+
+    private static Duration duration(String name, Duration defaultValue) {
+        String value = System.getProperty(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        return value.startsWith("P") ? Duration.parse(value) : Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    /**
+     * Latencies and error count of one operation.
+     */
+    private static final class OperationStats {
+        private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+        private final AtomicLong errors = new AtomicLong();
+
+        void record(long intendedStartNanos, boolean success) {
+            long latency = Math.min(System.nanoTime() - intendedStartNanos, HIGHEST_TRACKABLE_NANOS);
+            histogram.recordValue(Math.max(1, latency));
+            if (!success) {
+                errors.incrementAndGet();
+            }
+        }
+    }
+
+    private record RunResult(Map<Operation, OperationStats> stats, long elapsedNanos, long dropped) {
+    }
+}
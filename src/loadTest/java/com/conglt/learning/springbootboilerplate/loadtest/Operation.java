@@ -0,0 +1,88 @@
+package com.conglt.learning.springbootboilerplate.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Request types the load test can mix, with the names used in the {@code mix} setting.
+ */
+enum Operation {
+    PRODUCTS("products") {
+        @Override
+        HttpRequest request(LoadContext context) {
+            return context.get("/api/products?size=20").build();
+        }
+    },
+    PRODUCT("product") {
+        @Override
+        HttpRequest request(LoadContext context) {
+            return context.get("/api/products/" + context.randomProductId()).build();
+        }
+    },
+    CATEGORIES("categories") {
+        @Override
+        HttpRequest request(LoadContext context) {
+            return context.get("/api/categories").build();
+        }
+    },
+    SEARCH("search") {
+        @Override
+        HttpRequest request(LoadContext context) {
+            return context.get("/api/products/search?size=20&q=" + context.randomSearchTerm()).build();
+        }
+    },
+    WRITE("write") {
+        @Override
+        HttpRequest request(LoadContext context) {
+            int n = ThreadLocalRandom.current().nextInt(1_000_000);
+            String body = "{\"name\":\"Load test product " + n + "\",\"description\":\"Created by the load test\","
+                    + "\"price\":" + (10 + n % 990) + ".99,\"stock\":" + (n % 100)
+                    + ",\"category\":{\"id\":" + context.randomCategoryId() + "}}";
+            return context.post("/api/products", body)
+                    .header("Authorization", "Bearer " + context.adminToken())
+                    .build();
+        }
+    },
+    LOGIN("login") {
+        @Override
+        HttpRequest request(LoadContext context) {
+            return context.post("/login", context.loginBody()).build();
+        }
+    },
+    REGISTER("register") {
+        @Override
+        HttpRequest request(LoadContext context) {
+            String username = context.nextUsername();
+            String body = "{\"username\":\"" + username + "\",\"email\":\"" + username + "@loadtest.local\","
+                    + "\"password\":\"load-test-password\"}";
+            return context.post("/register", body).build();
+        }
+    };
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    String key() {
+        return key;
+    }
+
+    abstract HttpRequest request(LoadContext context);
+
+    static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equalsIgnoreCase(key.trim())) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation '" + key + "', expected one of products, product, "
+                + "categories, search, write, login, register");
+    }
+
+    static URI uri(String baseUrl, String path) {
+        return URI.create(baseUrl + path);
+    }
+}
@@ -0,0 +1,186 @@
+package com.conglt.learning.springbootboilerplate.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long a new instance takes to serve traffic. Each mode starts the application {@code runs} times
+ * and records the time from process start to the first 200 from {@code /health}, then the latency of the first
+ * API request on that instance (where lazily created beans and the deferred JPA bootstrap are paid).
+ * <p>
+ * Modes: {@code jar} ({@code java -jar}, default profile), {@code cds} (extracted jar with the AppCDS archive)
+ * and {@code fast-start} (CDS, {@code prod,fast-start} profiles and AOT code when built with {@code -Paot}).
+ * Run with {@code ./gradlew startupBenchmark}; {@code jar} and {@code cds} run Flyway, so PostgreSQL must be
+ * reachable with the usual environment. Settings are system properties: {@code runs}, {@code port},
+ * {@code modes} (comma separated), {@code firstRequest}, {@code report}.
+ */
+public final class StartupBenchmark {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(required("app.jar"));
+        Path cdsDir = Path.of(required("cds.dir"));
+        boolean aot = Boolean.getBoolean("aot");
+        int runs = Integer.getInteger("runs", 5);
+        int port = Integer.getInteger("port", 18080);
+        List<String> modes = Arrays.asList(System.getProperty("modes", "jar,cds,fast-start").split(","));
+        String firstRequest = System.getProperty("firstRequest", "/api/categories");
+        Path report = Path.of(System.getProperty("report", "build/reports/startup-benchmark.json"));
+
+        List<Result> results = new ArrayList<>();
+        for (String mode : modes) {
+            List<String> command = command(mode.trim(), jar, cdsDir, aot, port);
+            Result result = new Result(mode.trim(), new long[runs], new long[runs]);
+            Path log = Path.of("build", "reports", "startup-benchmark-" + result.mode + ".log");
+            for (int run = 0; run < runs; run++) {
+                measure(command, cdsDir, log, "http://localhost:" + port, firstRequest, result, run);
+            }
+            results.add(result);
+        }
+
+        System.out.printf(Locale.ROOT, "%n%-12s %14s %14s %14s %16s%n",
+                "mode", "ready p50 ms", "ready min ms", "ready max ms", "first req p50 ms");
+        for (Result result : results) {
+            System.out.printf(Locale.ROOT, "%-12s %14.0f %14.0f %14.0f %16.1f%n",
+                    result.mode, millis(median(result.ready)), millis(min(result.ready)), millis(max(result.ready)),
+                    millis(median(result.firstRequest)));
+        }
+
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        Files.writeString(report, toJson(results, runs, aot));
+        System.out.println("\nReport written to " + report.toAbsolutePath());
+    }
+
+    private static List<String> command(String mode, Path jar, Path cdsDir, boolean aot, int port) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        switch (mode) {
+            case "jar" -> command.addAll(List.of("-jar", jar.toString()));
+            case "cds" -> command.addAll(List.of("-XX:SharedArchiveFile=application.jsa",
+                    "-jar", jar.getFileName().toString()));
+            case "fast-start" -> {
+                command.add("-XX:SharedArchiveFile=application.jsa");
+                if (aot) {
+                    command.add("-Dspring.aot.enabled=true");
+                }
+                command.addAll(List.of("-jar", jar.getFileName().toString(), "--spring.profiles.active=prod,fast-start"));
+            }
+            default -> throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+        command.addAll(List.of(
+                "--server.port=" + port,
+                "--logging.level.root=WARN",
+                "--spring.devtools.restart.enabled=false"));
+        return command;
+    }
+
+    private static void measure(List<String> command, Path cdsDir, Path log, String baseUrl, String firstRequest,
+                                Result result, int run) throws IOException, InterruptedException {
+        Files.createDirectories(log.toAbsolutePath().getParent());
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        long start = System.nanoTime();
+        //cds va fast-start chay trong thu muc da extract, de duong dan classpath khop voi luc tao archive
+        Process process = new ProcessBuilder(command)
+                .directory(cdsDir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(log.toAbsolutePath().toFile()))
+                .start();
+        try {
+            awaitHealthy(client, process, baseUrl, start);
+            result.ready[run] = System.nanoTime() - start;
+
+            long requestStart = System.nanoTime();
+            HttpResponse<Void> response = client.send(
+                    HttpRequest.newBuilder(URI.create(baseUrl + firstRequest)).build(),
+                    HttpResponse.BodyHandlers.discarding());
+            result.firstRequest[run] = System.nanoTime() - requestStart;
+            System.out.printf(Locale.ROOT, "%s run %d: ready in %.0f ms, first %s -> %d in %.1f ms%n",
+                    result.mode, run + 1, millis(result.ready[run]), firstRequest, response.statusCode(),
+                    millis(result.firstRequest[run]));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static void awaitHealthy(HttpClient client, Process process, String baseUrl, long start)
+            throws InterruptedException {
+        HttpRequest health = HttpRequest.newBuilder(URI.create(baseUrl + "/health")).build();
+        while (System.nanoTime() - start < STARTUP_TIMEOUT.toNanos()) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with code " + process.exitValue());
+            }
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // chua mo port
+            }
+            //poll day de do sai so nho
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("Application did not become healthy within " + STARTUP_TIMEOUT);
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static long min(long[] values) {
+        return Arrays.stream(values).min().orElse(0);
+    }
+
+    private static long max(long[] values) {
+        return Arrays.stream(values).max().orElse(0);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static String toJson(List<Result> results, int runs, boolean aot) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n  \"runs\": ").append(runs).append(",\n  \"aot\": ").append(aot).append(",\n  \"modes\": [\n");
+        for (int i = 0; i < results.size(); i++) {
+            Result result = results.get(i);
+            json.append(String.format(Locale.ROOT,
+                    "    {\"mode\": \"%s\", \"readyP50Ms\": %.1f, \"readyMinMs\": %.1f, \"readyMaxMs\": %.1f, "
+                            + "\"firstRequestP50Ms\": %.1f}",
+                    result.mode, millis(median(result.ready)), millis(min(result.ready)), millis(max(result.ready)),
+                    millis(median(result.firstRequest))));
+            json.append(i < results.size() - 1 ? ",\n" : "\n");
+        }
+        return json.append("  ]\n}\n").toString();
+    }
+
+    private static String required(String name) {
+        String value = System.getProperty(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing system property: " + name);
+        }
+        return value;
+    }
+
+    private record Result(String mode, long[] ready, long[] firstRequest) {
+    }
+}
@@ -0,0 +1,210 @@
+package com.conglt.learning.springbootboilerplate.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares request throughput and latency of the application on platform threads and on virtual threads.
+ * For each mode it boots the packaged application jar with {@code spring.threads.virtual.enabled} set
+ * accordingly, drives a closed-loop load of {@code concurrency} clients against read endpoints that hit
+ * the database, then prints both results side by side and writes them as JSON.
+ * <p>
+ * Run with {@code ./gradlew threadModeBenchmark}; PostgreSQL must be reachable with the usual environment.
+ * Settings are system properties: {@code concurrency}, {@code warmup}, {@code duration} (ISO-8601 or
+ * seconds), {@code port}, {@code paths} (comma separated), {@code report}.
+ */
+public final class ThreadModeBenchmark {
+
+    private ThreadModeBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(required("app.jar"));
+        int concurrency = Integer.getInteger("concurrency", 1000);
+        Duration warmup = duration("warmup", Duration.ofSeconds(10));
+        Duration measure = duration("duration", Duration.ofSeconds(30));
+        int port = Integer.getInteger("port", 18080);
+        List<String> paths = Arrays.asList(System.getProperty("paths",
+                "/api/products?size=20,/api/categories,/api/products/search?q=pro").split(","));
+        Path report = Path.of(System.getProperty("report", "build/reports/thread-mode-benchmark.json"));
+
+        List<Result> results = new ArrayList<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            String mode = virtual ? "virtual" : "platform";
+            Path log = Path.of("build", "reports", "thread-mode-benchmark-" + mode + ".log");
+            try (AppProcess app = AppProcess.start(jar, port, log,
+                    List.of("--spring.threads.virtual.enabled=" + virtual))) {
+                run(app.baseUrl(), paths, concurrency, warmup);
+                results.add(run(app.baseUrl(), paths, concurrency, measure).named(mode));
+            }
+        }
+
+        System.out.printf(Locale.ROOT, "%n%-10s %12s %10s %10s %10s %10s%n",
+                "mode", "requests/s", "p50 ms", "p99 ms", "max ms", "errors");
+        for (Result result : results) {
+            System.out.printf(Locale.ROOT, "%-10s %12.1f %10.2f %10.2f %10.2f %10d%n",
+                    result.mode, result.throughput(), result.percentileMillis(50), result.percentileMillis(99),
+                    result.percentileMillis(100), result.errors);
+        }
+
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        Files.writeString(report, toJson(results, concurrency, measure));
+        System.out.println("\nReport written to " + report.toAbsolutePath());
+    }
+
+    private static Result run(String baseUrl, List<String> paths, int concurrency, Duration duration)
+            throws InterruptedException {
+        List<URI> uris = paths.stream().map(path -> URI.create(baseUrl + path.trim())).toList();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong errors = new AtomicLong();
+        LongSamples[] samples = new LongSamples[concurrency];
+        CountDownLatch done = new CountDownLatch(concurrency);
+
+        try (HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            long start = System.nanoTime();
+            for (int c = 0; c < concurrency; c++) {
+                LongSamples own = samples[c] = new LongSamples();
+                int offset = c;
+                clients.submit(() -> {
+                    try {
+                        for (int i = offset; running.get(); i++) {
+                            HttpRequest request = HttpRequest.newBuilder(uris.get(i % uris.size()))
+                                    .timeout(Duration.ofSeconds(60))
+                                    .build();
+                            long sent = System.nanoTime();
+                            try {
+                                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                                if (response.statusCode() >= 400) {
+                                    errors.incrementAndGet();
+                                }
+                            } catch (IOException e) {
+                                errors.incrementAndGet();
+                            }
+                            own.add(System.nanoTime() - sent);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            Thread.sleep(duration.toMillis());
+            running.set(false);
+            done.await();
+            long elapsed = System.nanoTime() - start;
+            return new Result(LongSamples.merge(samples), elapsed, errors.get());
+        }
+    }
+
+    private static String toJson(List<Result> results, int concurrency, Duration duration) {
+        StringBuilder json = new StringBuilder("{\n  \"concurrency\": ").append(concurrency)
+                .append(",\n  \"durationSeconds\": ").append(duration.toSeconds())
+                .append(",\n  \"results\": [\n");
+        for (int i = 0; i < results.size(); i++) {
+            Result r = results.get(i);
+            json.append(String.format(Locale.ROOT,
+                    "    {\"mode\": \"%s\", \"requests\": %d, \"errors\": %d, \"requestsPerSecond\": %.1f, "
+                            + "\"p50Millis\": %.3f, \"p99Millis\": %.3f, \"maxMillis\": %.3f}",
+                    r.mode, r.latencies.length, r.errors, r.throughput(),
+                    r.percentileMillis(50), r.percentileMillis(99), r.percentileMillis(100)));
+            json.append(i < results.size() - 1 ? ",\n" : "\n");
+        }
+        return json.append("  ]\n}\n").toString();
+    }
+
+    private static String required(String name) {
+        String value = System.getProperty(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing system property " + name);
+        }
+        return value;
+    }
+
+    private static Duration duration(String name, Duration defaultValue) {
+        String value = System.getProperty(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        return value.startsWith("P") ? Duration.parse(value) : Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    /**
+     * Latencies recorded by one client; only touched by its own thread until merged.
+     */
+    private static final class LongSamples {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        static long[] merge(LongSamples[] all) {
+            int total = 0;
+            for (LongSamples samples : all) {
+                total += samples.size;
+            }
+            long[] merged = new long[total];
+            int position = 0;
+            for (LongSamples samples : all) {
+                System.arraycopy(samples.values, 0, merged, position, samples.size);
+                position += samples.size;
+            }
+            Arrays.sort(merged);
+            return merged;
+        }
+    }
+
+    private static final class Result {
+        private final long[] latencies;
+        private final long elapsedNanos;
+        private final long errors;
+        private String mode;
+
+        Result(long[] latencies, long elapsedNanos, long errors) {
+            this.latencies = latencies;
+            this.elapsedNanos = elapsedNanos;
+            this.errors = errors;
+        }
+
+        Result named(String mode) {
+            this.mode = mode;
+            return this;
+        }
+
+        double throughput() {
+            return latencies.length / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        double percentileMillis(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(index, latencies.length - 1))] / 1_000_000.0;
+        }
+    }
+}
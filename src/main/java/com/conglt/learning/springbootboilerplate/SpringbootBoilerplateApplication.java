@@ -4,10 +4,12 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableJpaRepositories(basePackages = "com.conglt.learning.springbootboilerplate.repository")
 @EnableAspectJAutoProxy
+@EnableScheduling
 public class SpringbootBoilerplateApplication {
 
     public static void main(String[] args) {
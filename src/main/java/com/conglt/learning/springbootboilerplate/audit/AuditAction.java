@@ -0,0 +1,10 @@
+package com.conglt.learning.springbootboilerplate.audit;
+
+/**
+ * Values of {@code audit_log.action}.
+ */
+public enum AuditAction {
+    CREATE,
+    UPDATE,
+    DELETE
+}
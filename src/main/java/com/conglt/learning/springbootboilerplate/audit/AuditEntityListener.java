@@ -0,0 +1,153 @@
+package com.conglt.learning.springbootboilerplate.audit;
+
+import com.conglt.learning.springbootboilerplate.model.Category;
+import com.conglt.learning.springbootboilerplate.model.Product;
+import com.conglt.learning.springbootboilerplate.model.User;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.event.spi.AbstractEvent;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Hibernate listener that turns committed inserts, updates and deletes of audited entities into
+ * {@link AuditEvent}s on the {@link AuditQueue}.
+ * Post-commit events only fire once the transaction has committed, so rolled-back changes are never
+ * audited, and the only work done on the request thread is copying the changed values.
+ * Associations are recorded by id and secret properties are masked.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuditEntityListener implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private static final Set<Class<?>> AUDITED_TYPES = Set.of(Product.class, Category.class, User.class);
+
+    private static final Set<String> MASKED_PROPERTIES = Set.of("password");
+
+    private static final String MASK = "******";
+
+    private final AuditQueue auditQueue;
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return AUDITED_TYPES.contains(persister.getMappedClass());
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        EntityPersister persister = event.getPersister();
+        if (!requiresPostCommitHandling(persister)) {
+            return;
+        }
+        enqueue(persister, event.getId(), AuditAction.CREATE, snapshot(persister, event.getState(), event));
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        EntityPersister persister = event.getPersister();
+        if (!requiresPostCommitHandling(persister)) {
+            return;
+        }
+        String[] names = persister.getPropertyNames();
+        Type[] types = persister.getPropertyTypes();
+        Object[] oldState = event.getOldState();
+        Object[] newState = event.getState();
+
+        Map<String, Object> changes = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            Object newValue = toAuditValue(types[i], newState[i], event);
+            Object oldValue = oldState != null ? toAuditValue(types[i], oldState[i], event) : null;
+            if (oldState != null && Objects.equals(oldValue, newValue)) {
+                continue;
+            }
+            Map<String, Object> change = new LinkedHashMap<>();
+            change.put("old", mask(names[i], oldValue));
+            change.put("new", mask(names[i], newValue));
+            changes.put(names[i], change);
+        }
+        if (!changes.isEmpty()) {
+            enqueue(persister, event.getId(), AuditAction.UPDATE, changes);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        EntityPersister persister = event.getPersister();
+        if (!requiresPostCommitHandling(persister)) {
+            return;
+        }
+        enqueue(persister, event.getId(), AuditAction.DELETE, snapshot(persister, event.getDeletedState(), event));
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // transaction rolled back: nothing to audit
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // transaction rolled back: nothing to audit
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // transaction rolled back: nothing to audit
+    }
+
+    private Map<String, Object> snapshot(EntityPersister persister, Object[] state, AbstractEvent event) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        if (state == null) {
+            return values;
+        }
+        String[] names = persister.getPropertyNames();
+        Type[] types = persister.getPropertyTypes();
+        for (int i = 0; i < names.length; i++) {
+            if (types[i].isCollectionType()) {
+                continue;
+            }
+            values.put(names[i], mask(names[i], toAuditValue(types[i], state[i], event)));
+        }
+        return values;
+    }
+
+    private Object toAuditValue(Type type, Object value, AbstractEvent event) {
+        if (value == null) {
+            return null;
+        }
+        if (type.isEntityType()) {
+            // chi luu id cua entity lien ket (vd category cua product)
+            return event.getSession().getFactory().getPersistenceUnitUtil().getIdentifier(value);
+        }
+        if (type.isCollectionType()) {
+            return null;
+        }
+        if (value instanceof Enum<?> enumValue) {
+            return enumValue.name();
+        }
+        return value;
+    }
+
+    private Object mask(String property, Object value) {
+        return value != null && MASKED_PROPERTIES.contains(property) ? MASK : value;
+    }
+
+    private void enqueue(EntityPersister persister, Object id, AuditAction action, Map<String, Object> changes) {
+        auditQueue.offer(AuditEvent.of(
+                persister.getMappedClass().getSimpleName(),
+                id instanceof Number number ? number.longValue() : null,
+                action,
+                changes));
+    }
+}
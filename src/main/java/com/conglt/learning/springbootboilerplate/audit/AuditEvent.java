@@ -0,0 +1,43 @@
+package com.conglt.learning.springbootboilerplate.audit;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * One pending {@code audit_log} row.
+ * {@code changes} holds only immutable values (strings, numbers, dates, ids), so the event can be
+ * serialized later on the writer thread without touching the entity.
+ *
+ * @param entityType the audited entity's simple class name
+ * @param entityId   the audited entity's id
+ * @param action     what happened to the entity
+ * @param changes    property values (CREATE/DELETE) or {@code {old, new}} pairs of changed properties (UPDATE)
+ * @param createdAt  when the change was committed
+ * @param createdBy  the authenticated user that made the change, or null
+ */
+public record AuditEvent(String entityType,
+                         Long entityId,
+                         AuditAction action,
+                         Map<String, Object> changes,
+                         LocalDateTime createdAt,
+                         String createdBy) {
+
+    /**
+     * Create an event stamped with the current time and the authenticated user of the calling thread.
+     */
+    public static AuditEvent of(String entityType, Long entityId, AuditAction action, Map<String, Object> changes) {
+        return new AuditEvent(entityType, entityId, action, changes, LocalDateTime.now(), currentUsername());
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || "anonymousUser".equals(authentication.getPrincipal())) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,36 @@
+package com.conglt.learning.springbootboilerplate.audit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registers {@link AuditEntityListener} with Hibernate's event system once the EntityManagerFactory is built.
+ * Disable with {@code audit.enabled=false}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "audit.enabled", havingValue = "true", matchIfMissing = true)
+public class AuditListenerRegistrar {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final AuditEntityListener auditEntityListener;
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .requireService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, auditEntityListener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, auditEntityListener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, auditEntityListener);
+        log.info("Audit listeners registered for Product, Category and User");
+    }
+}
@@ -0,0 +1,182 @@
+package com.conglt.learning.springbootboilerplate.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Background writer that drains {@link AuditQueue} into {@code audit_log} with JDBC batch inserts.
+ * Runs on a single daemon thread; a batch is flushed when it is full or every {@code flush-interval}.
+ * On shutdown it stops after the web server (lower lifecycle phase) and drains whatever is still queued
+ * before the DataSource is closed.
+ */
+@Slf4j
+@Component
+public class AuditLogWriter implements SmartLifecycle {
+
+    private static final String INSERT_SQL = "insert into audit_log "
+            + "(entity_type, entity_id, action, changes, created_at, created_by) values (?, ?, ?, ?::jsonb, ?, ?)";
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final AuditQueue auditQueue;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Duration shutdownTimeout;
+
+    private final Timer flushTimer;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public AuditLogWriter(AuditQueue auditQueue,
+                          JdbcTemplate jdbcTemplate,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${audit.writer.batch-size:500}") int batchSize,
+                          @Value("${audit.writer.flush-interval:200ms}") Duration flushInterval,
+                          @Value("${audit.writer.shutdown-timeout:15s}") Duration shutdownTimeout) {
+        this.auditQueue = auditQueue;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.shutdownTimeout = shutdownTimeout;
+        this.flushTimer = Timer.builder("audit.flush.duration")
+                .description("Time to write one batch of audit events")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("audit.events.written")
+                .description("Audit events written to audit_log")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("audit.events.failed")
+                .description("Audit events lost after repeated write failures")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = Thread.ofPlatform().name("audit-log-writer").daemon(true).unstarted(this::run);
+        auditQueue.setConsumer(worker);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = worker;
+        if (thread == null) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        try {
+            if (!thread.join(shutdownTimeout)) {
+                log.warn("Audit writer did not drain within {}ms, {} events left in queue",
+                        shutdownTimeout.toMillis(), auditQueue.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        auditQueue.setConsumer(null);
+        worker = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stop after the web server has stopped accepting requests (which stops around DEFAULT_PHASE - 2048),
+     * so changes made by in-flight requests are still drained.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void run() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            if (auditQueue.drainTo(batch, batchSize) == 0) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+                continue;
+            }
+            // gom them mot chut neu batch chua day, tranh ghi tung dong mot
+            if (batch.size() < batchSize && running) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+                auditQueue.drainTo(batch, batchSize - batch.size());
+            }
+            flush(batch);
+        }
+
+        // shutdown: ghi not nhung gi con trong queue
+        while (auditQueue.drainTo(batch, batchSize) > 0) {
+            flush(batch);
+        }
+    }
+
+    private void flush(List<AuditEvent> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (AuditEvent event : batch) {
+            rows.add(new Object[]{
+                    event.entityType(),
+                    event.entityId(),
+                    event.action().name(),
+                    toJson(event),
+                    Timestamp.valueOf(event.createdAt()),
+                    event.createdBy()
+            });
+        }
+        int[] types = {Types.VARCHAR, Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP, Types.VARCHAR};
+
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            long start = System.nanoTime();
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows, types);
+                flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                writtenCounter.increment(rows.size());
+                batch.clear();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Failed to write {} audit events (attempt {}/{}): {}",
+                        rows.size(), attempt, MAX_ATTEMPTS, e.getMessage());
+                if (attempt < MAX_ATTEMPTS) {
+                    LockSupport.parkNanos(Duration.ofMillis(200L * attempt).toNanos());
+                }
+            }
+        }
+        log.error("Dropping {} audit events after {} failed attempts", rows.size(), MAX_ATTEMPTS);
+        failedCounter.increment(rows.size());
+        batch.clear();
+    }
+
+    private String toJson(AuditEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event.changes());
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize audit changes of {} {}: {}", event.entityType(), event.entityId(), e.getMessage());
+            return null;
+        }
+    }
+}
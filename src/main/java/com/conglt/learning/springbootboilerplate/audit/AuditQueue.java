@@ -0,0 +1,131 @@
+package com.conglt.learning.springbootboilerplate.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded, lock-free hand-off between request threads and {@link AuditLogWriter}.
+ * Capacity is enforced with a CAS on a separate counter, so producers never block on a lock.
+ * When the queue is full a producer wakes the writer and retries for at most {@code offer-timeout};
+ * if there is still no room the event is dropped and counted in {@code audit.events.dropped}
+ * rather than slowing down the request that triggered it.
+ */
+@Component
+public class AuditQueue {
+
+    private static final long RETRY_PARK_NANOS = Duration.ofMillis(1).toNanos();
+
+    private final Queue<AuditEvent> events = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+    private final long offerTimeoutNanos;
+    private final Counter droppedCounter;
+    private volatile Thread consumer;
+
+    public AuditQueue(MeterRegistry meterRegistry,
+                      @Value("${audit.queue.capacity:10000}") int capacity,
+                      @Value("${audit.queue.offer-timeout:20ms}") Duration offerTimeout) {
+        this.capacity = capacity;
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+        this.droppedCounter = Counter.builder("audit.events.dropped")
+                .description("Audit events dropped because the queue stayed full")
+                .register(meterRegistry);
+        Gauge.builder("audit.queue.depth", size, AtomicInteger::get)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Enqueue an event, waiting briefly for room if the queue is full.
+     *
+     * @param event the event to enqueue
+     * @return true if enqueued, false if it was dropped
+     */
+    public boolean offer(AuditEvent event) {
+        long deadline = System.nanoTime() + offerTimeoutNanos;
+        while (!tryReserveSlot()) {
+            wakeConsumer();
+            if (System.nanoTime() - deadline >= 0) {
+                droppedCounter.increment();
+                return false;
+            }
+            LockSupport.parkNanos(RETRY_PARK_NANOS);
+        }
+        events.add(event);
+        if (size.get() >= capacity / 2) {
+            wakeConsumer();
+        }
+        return true;
+    }
+
+    /**
+     * Enqueue an event published with {@code ApplicationEventPublisher} once the publishing transaction
+     * commits (immediately when there is none), for writes that bypass the Hibernate listeners.
+     *
+     * @param event the event to enqueue
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommitted(AuditEvent event) {
+        offer(event);
+    }
+
+    /**
+     * Move up to {@code max} events into {@code batch}.
+     *
+     * @param batch the list to fill
+     * @param max   the maximum number of events to move
+     * @return the number of events moved
+     */
+    public int drainTo(List<AuditEvent> batch, int max) {
+        int drained = 0;
+        AuditEvent event;
+        while (drained < max && (event = events.poll()) != null) {
+            batch.add(event);
+            drained++;
+        }
+        size.addAndGet(-drained);
+        return drained;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Register the thread to unpark when the queue fills up.
+     *
+     * @param consumer the writer thread, or null to unregister
+     */
+    void setConsumer(Thread consumer) {
+        this.consumer = consumer;
+    }
+
+    private boolean tryReserveSlot() {
+        int current;
+        do {
+            current = size.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private void wakeConsumer() {
+        Thread thread = consumer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.conglt.learning.springbootboilerplate.cache;
+
+import java.time.Duration;
+
+/**
+ * Default L2 tier that stores nothing, used until a real remote cache is configured.
+ */
+public class NoOpRemoteCache implements RemoteCache {
+
+    @Override
+    public Object get(String cacheName, Object key) {
+        return null;
+    }
+
+    @Override
+    public void put(String cacheName, Object key, Object value, Duration ttl) {
+    }
+
+    @Override
+    public void evict(String cacheName, Object key) {
+    }
+
+    @Override
+    public void clear(String cacheName) {
+    }
+}
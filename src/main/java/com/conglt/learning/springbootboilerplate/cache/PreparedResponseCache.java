@@ -0,0 +1,213 @@
+package com.conglt.learning.springbootboilerplate.cache;
+
+import com.conglt.learning.springbootboilerplate.util.EntityTags;
+import com.github.luben.zstd.Zstd;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Hot, rarely-changing JSON responses kept serialized and compressed, once per version of their data.
+ * Each body is stored as identity, gzip and (when the native library loads) zstd bytes; a request gets
+ * the best coding its {@code Accept-Encoding} allows, written as-is with no serialization or compression.
+ * A new version (a write on any instance) rebuilds the entry on the next read; concurrent readers of a
+ * stale entry wait for that single rebuild. Tags differ per coding, as required for strong ETags.
+ * Bodies are written with the MVC {@link JsonMapper}, so they match what the message converters would send.
+ */
+@Slf4j
+@Component
+public class PreparedResponseCache {
+
+    private final JsonMapper jsonMapper;
+    private final Map<String, PreparedBody> bodies = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final boolean zstdAvailable;
+    private final int zstdLevel;
+
+    public PreparedResponseCache(JsonMapper jsonMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${web.prepared-responses.zstd-level:12}") int zstdLevel) {
+        this.jsonMapper = jsonMapper;
+        this.meterRegistry = meterRegistry;
+        this.zstdLevel = zstdLevel;
+        this.zstdAvailable = loadZstd();
+    }
+
+    /**
+     * Content codings a body is prepared in, in order of preference.
+     */
+    public enum Coding {
+        ZSTD("zstd"),
+        GZIP("gzip"),
+        IDENTITY("identity");
+
+        private final String token;
+
+        Coding(String token) {
+            this.token = token;
+        }
+
+        public String token() {
+            return token;
+        }
+    }
+
+    /**
+     * One version of a response body in every prepared coding ({@code zstd} is null when unavailable).
+     */
+    public record PreparedBody(long version, byte[] identity, byte[] gzip, byte[] zstd) {
+
+        byte[] bytes(Coding coding) {
+            return switch (coding) {
+                case ZSTD -> zstd;
+                case GZIP -> gzip;
+                case IDENTITY -> identity;
+            };
+        }
+    }
+
+    /**
+     * Answer a GET with the prepared body of {@code name} at {@code version}: 304 when the client's
+     * If-None-Match still matches (nothing is built), otherwise 200 with the pre-compressed bytes.
+     *
+     * @param request the current request
+     * @param name    the resource, e.g. {@code categories}
+     * @param version the version of the data behind the resource, read before the data
+     * @param body    loads the value to serialize when the prepared body is missing or older than {@code version}
+     */
+    public ResponseEntity<byte[]> respond(WebRequest request, String name, long version, Supplier<?> body) {
+        Coding coding = negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = EntityTags.of(name, version, coding.token());
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(EntityTags.REVALIDATE)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        PreparedBody prepared = get(name, version, body);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(EntityTags.REVALIDATE)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (coding != Coding.IDENTITY) {
+            response.header(HttpHeaders.CONTENT_ENCODING, coding.token());
+        }
+        return response.body(prepared.bytes(coding));
+    }
+
+    PreparedBody get(String name, long version, Supplier<?> body) {
+        PreparedBody current = bodies.get(name);
+        if (current != null && current.version() >= version) {
+            return current;
+        }
+        //compute khoa theo key: nhieu request cung thay ban cu thi chi 1 request build lai
+        return bodies.compute(name, (key, existing) ->
+                existing != null && existing.version() >= version ? existing : build(key, version, body.get()));
+    }
+
+    private PreparedBody build(String name, long version, Object value) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        byte[] identity;
+        try {
+            identity = jsonMapper.writeValueAsBytes(value);
+        } catch (JacksonException e) {
+            throw new IllegalStateException("Cannot serialize prepared response " + name, e);
+        }
+        byte[] gzip = gzip(identity);
+        byte[] zstd = zstdAvailable ? Zstd.compress(identity, zstdLevel) : null;
+        sample.stop(Timer.builder("http.prepared.responses.build")
+                .description("Serialization and compression of a prepared response")
+                .tag("name", name)
+                .register(meterRegistry));
+        Counter.builder("http.prepared.responses.bytes")
+                .baseUnit("bytes")
+                .tag("name", name)
+                .register(meterRegistry)
+                .increment(identity.length);
+        log.debug("Prepared response {} v{}: {} bytes, gzip {}, zstd {}", name, version, identity.length, gzip.length,
+                zstd != null ? zstd.length : "n/a");
+        return new PreparedBody(version, identity, gzip, zstd);
+    }
+
+    Coding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return Coding.IDENTITY;
+        }
+        boolean zstd = false;
+        boolean gzip = false;
+        for (String entry : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = entry.split(";");
+            String token = parts[0].trim();
+            if (isRefused(parts)) {
+                continue;
+            }
+            zstd |= token.equals("zstd") || token.equals("*");
+            gzip |= token.equals("gzip") || token.equals("x-gzip") || token.equals("*");
+        }
+        if (zstd && zstdAvailable) {
+            return Coding.ZSTD;
+        }
+        return gzip ? Coding.GZIP : Coding.IDENTITY;
+    }
+
+    //"gzip;q=0" nghia la client khong nhan gzip
+    private static boolean isRefused(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) <= 0;
+                } catch (NumberFormatException e) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    //zstd-jni can thu vien native cho tung nen tang; khong nap duoc thi chi dung gzip
+    private static boolean loadZstd() {
+        try {
+            Zstd.compress(new byte[]{0}, 1);
+            return true;
+        } catch (LinkageError e) {
+            log.info("zstd native library not available, prepared responses use gzip only: {}", e.getMessage());
+            return false;
+        }
+    }
+}
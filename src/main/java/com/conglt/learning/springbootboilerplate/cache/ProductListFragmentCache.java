@@ -0,0 +1,102 @@
+package com.conglt.learning.springbootboilerplate.cache;
+
+import com.conglt.learning.springbootboilerplate.dto.CursorPage;
+import com.conglt.learning.springbootboilerplate.dto.ProductListCriteria;
+import com.conglt.learning.springbootboilerplate.dto.ProductView;
+import com.conglt.learning.springbootboilerplate.service.ProductService;
+import com.conglt.learning.springbootboilerplate.service.impl.CatalogVersion;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cache of rendered rows of the product list page (template {@code fragments/product-rows}).
+ * Entries are keyed on the {@link CatalogVersion} and the list criteria, so a product or category write
+ * makes every older entry unreachable without scanning the cache; the TTL bounds staleness for writes
+ * made by other instances. A hit skips both the query and the template rendering.
+ */
+@Component
+public class ProductListFragmentCache {
+
+    static final String CACHE_NAME = "productListFragments";
+
+    private static final String ROWS_TEMPLATE = "fragments/product-rows";
+    private static final Set<String> ROWS_FRAGMENT = Set.of("rows");
+
+    private final ProductService productService;
+    private final CatalogVersion catalogVersion;
+    private final ITemplateEngine templateEngine;
+    private final JakartaServletWebApplication webApplication;
+    private final Cache<Key, RenderedPage> pages;
+
+    public ProductListFragmentCache(ProductService productService,
+                                    CatalogVersion catalogVersion,
+                                    ITemplateEngine templateEngine,
+                                    ServletContext servletContext,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${web.product-list.fragment-cache.maximum-size:1000}") long maximumSize,
+                                    @Value("${web.product-list.fragment-cache.ttl:30s}") Duration ttl) {
+        this.productService = productService;
+        this.catalogVersion = catalogVersion;
+        this.templateEngine = templateEngine;
+        this.webApplication = JakartaServletWebApplication.buildApplication(servletContext);
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, CACHE_NAME);
+    }
+
+    /**
+     * A rendered page of the product list.
+     *
+     * @param rowsHtml   the table rows, already escaped by the template
+     * @param size       the number of products on the page
+     * @param nextCursor the cursor of the next page, or null on the last page
+     */
+    public record RenderedPage(String rowsHtml, int size, String nextCursor) {
+    }
+
+    private record Key(long version, boolean admin, ProductListCriteria criteria) {
+    }
+
+    /**
+     * Return the rendered rows for the criteria, querying and rendering them only on a miss.
+     * Admins get rows with edit/delete controls, so they are cached separately.
+     */
+    public RenderedPage get(ProductListCriteria criteria, boolean admin,
+                            HttpServletRequest request, HttpServletResponse response) {
+        //copy lai criteria vi object binding cua request co the bi sua sau khi da lam key
+        Key key = new Key(catalogVersion.current(), admin, ProductListCriteria.builder()
+                .categoryId(criteria.getCategoryId())
+                .name(criteria.getName())
+                .sort(criteria.getSort())
+                .cursor(criteria.getCursor())
+                .size(criteria.getSize())
+                .build());
+        return pages.get(key, k -> render(k.criteria(), k.admin(), request, response));
+    }
+
+    private RenderedPage render(ProductListCriteria criteria, boolean admin,
+                                HttpServletRequest request, HttpServletResponse response) {
+        CursorPage<ProductView> page = productService.getProductListPage(criteria);
+        WebContext context = new WebContext(webApplication.buildExchange(request, response), request.getLocale(),
+                Map.<String, Object>of("products", page.getItems(), "admin", admin));
+        String rowsHtml = templateEngine.process(ROWS_TEMPLATE, ROWS_FRAGMENT, context);
+        return new RenderedPage(rowsHtml, page.getSize(), page.getNextCursor());
+    }
+}
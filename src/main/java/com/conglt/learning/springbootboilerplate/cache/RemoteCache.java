@@ -0,0 +1,45 @@
+package com.conglt.learning.springbootboilerplate.cache;
+
+import java.time.Duration;
+
+/**
+ * Second-level (shared, out-of-process) cache tier behind the in-process L1.
+ * Register a bean implementing this interface (e.g. backed by Redis) to enable it;
+ * without one, {@link NoOpRemoteCache} is used and only L1 is active.
+ */
+public interface RemoteCache {
+
+    /**
+     * Look up a value.
+     *
+     * @param cacheName the logical cache name
+     * @param key       the entry key
+     * @return the stored value, or null if absent
+     */
+    Object get(String cacheName, Object key);
+
+    /**
+     * Store a value.
+     *
+     * @param cacheName the logical cache name
+     * @param key       the entry key
+     * @param value     the value to store
+     * @param ttl       how long the entry may live
+     */
+    void put(String cacheName, Object key, Object value, Duration ttl);
+
+    /**
+     * Remove a single entry.
+     *
+     * @param cacheName the logical cache name
+     * @param key       the entry key
+     */
+    void evict(String cacheName, Object key);
+
+    /**
+     * Remove every entry of a cache.
+     *
+     * @param cacheName the logical cache name
+     */
+    void clear(String cacheName);
+}
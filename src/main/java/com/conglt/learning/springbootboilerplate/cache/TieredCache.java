@@ -0,0 +1,91 @@
+package com.conglt.learning.springbootboilerplate.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Spring {@link org.springframework.cache.Cache} with two tiers: a bounded Caffeine L1 in front of a
+ * pluggable {@link RemoteCache} L2. Reads check L1, then L2 (promoting hits into L1), then load;
+ * writes and evictions go to both tiers. Concurrent loads of the same key are collapsed by Caffeine.
+ */
+public class TieredCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+
+    private final Cache<Object, Object> local;
+
+    private final RemoteCache remote;
+
+    private final Duration ttl;
+
+    public TieredCache(String name, Cache<Object, Object> local, RemoteCache remote, Duration ttl) {
+        super(false);
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = local.getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        value = remote.get(name, key);
+        if (value != null) {
+            local.put(key, value);
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return (T) fromStoreValue(local.get(key, k -> {
+            Object remoteValue = remote.get(name, k);
+            if (remoteValue != null) {
+                return remoteValue;
+            }
+            try {
+                Object loaded = toStoreValue(valueLoader.call());
+                remote.put(name, k, loaded, ttl);
+                return loaded;
+            } catch (Exception e) {
+                throw new ValueRetrievalException(k, valueLoader, e);
+            }
+        }));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Object storeValue = toStoreValue(value);
+        local.put(key, storeValue);
+        remote.put(name, key, storeValue, ttl);
+    }
+
+    @Override
+    public void evict(Object key) {
+        local.invalidate(key);
+        remote.evict(name, key);
+    }
+
+    @Override
+    public void clear() {
+        local.invalidateAll();
+        remote.clear(name);
+    }
+}
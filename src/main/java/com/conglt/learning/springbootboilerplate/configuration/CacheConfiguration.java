@@ -0,0 +1,60 @@
+package com.conglt.learning.springbootboilerplate.configuration;
+
+import com.conglt.learning.springbootboilerplate.cache.NoOpRemoteCache;
+import com.conglt.learning.springbootboilerplate.cache.RemoteCache;
+import com.conglt.learning.springbootboilerplate.cache.TieredCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Cache Configuration for product and category reads.
+ * Each cache is a {@link TieredCache} (Caffeine L1 + optional remote L2) wrapped in a
+ * {@link TransactionAwareCacheDecorator}, so evictions issued inside a transaction only run after it commits.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+    public static final String PRODUCTS = "products";
+    public static final String CATEGORIES = "categories";
+    public static final String CATEGORY_LIST = "categoryList";
+
+    @Bean
+    public CacheManager cacheManager(ObjectProvider<RemoteCache> remoteCache,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${cache.l1.maximum-size:10000}") long maximumSize,
+                                     @Value("${cache.l1.ttl:10m}") Duration ttl) {
+        RemoteCache l2 = remoteCache.getIfAvailable(NoOpRemoteCache::new);
+
+        List<Cache> caches = Stream.of(PRODUCTS, CATEGORIES, CATEGORY_LIST)
+                .map(name -> {
+                    com.github.benmanes.caffeine.cache.Cache<Object, Object> l1 = Caffeine.newBuilder()
+                            .maximumSize(maximumSize)
+                            .expireAfterWrite(ttl)
+                            .recordStats()
+                            .build();
+                    // cache.gets{result=hit|miss}, cache.evictions, cache.size ... tagged with the cache name
+                    CaffeineCacheMetrics.monitor(meterRegistry, l1, name);
+                    return (Cache) new TransactionAwareCacheDecorator(new TieredCache(name, l1, l2, ttl));
+                })
+                .toList();
+
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(caches);
+        return cacheManager;
+    }
+}
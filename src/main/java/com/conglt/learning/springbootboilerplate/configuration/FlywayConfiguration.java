@@ -0,0 +1,33 @@
+package com.conglt.learning.springbootboilerplate.configuration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.flyway.autoconfigure.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.Locale;
+
+/**
+ * What Flyway does when the application starts, from {@code flyway.startup}:
+ * {@code migrate} (default), {@code validate} (fail on pending or changed migrations without applying them)
+ * or {@code skip} (fast-start instances, the schema is migrated by a regular instance or the deploy job).
+ * Read at startup rather than through {@code spring.flyway.enabled}, which AOT processing fixes at build time.
+ */
+@Slf4j
+@Configuration
+public class FlywayConfiguration {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(Environment environment) {
+        return flyway -> {
+            String mode = environment.getProperty("flyway.startup", "migrate").toLowerCase(Locale.ROOT);
+            switch (mode) {
+                case "migrate" -> flyway.migrate();
+                case "validate" -> flyway.validate();
+                case "skip" -> log.info("Flyway migrations skipped at startup (flyway.startup=skip)");
+                default -> throw new IllegalArgumentException("Unknown flyway.startup: " + mode);
+            }
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package com.conglt.learning.springbootboilerplate.configuration;
+
+import com.conglt.learning.springbootboilerplate.logging.RequestCorrelationFilter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Logging Configuration. Appenders, JSON output and rate limits live in {@code logback-spring.xml}.
+ */
+@Configuration
+public class LoggingConfiguration {
+
+    @Bean
+    public FilterRegistrationBean<RequestCorrelationFilter> requestCorrelationFilter() {
+        FilterRegistrationBean<RequestCorrelationFilter> registration =
+                new FilterRegistrationBean<>(new RequestCorrelationFilter());
+        // truoc moi filter khac de moi dong log cua request deu co requestId
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
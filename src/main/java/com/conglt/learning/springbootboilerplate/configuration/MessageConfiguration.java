@@ -1,12 +1,16 @@
 package com.conglt.learning.springbootboilerplate.configuration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.support.ResourceBundleMessageSource;
 
 /**
- * Message Configuration for internationalization (i18n).
+ * Message Configuration for internationalization (i18n) and the shared JSON mappers.
  */
 @Configuration
 public class MessageConfiguration {
@@ -20,9 +24,26 @@ public class MessageConfiguration {
         return messageSource;
     }
 
+    /**
+     * Shared Jackson 2 mapper used outside Spring MVC (exports, imports, audit log, error responses,
+     * prepared responses). Blackbird replaces reflective getters and setters with generated lambdas.
+     */
     @Bean
     public ObjectMapper objectMapper() {
-        return new ObjectMapper();
+        return JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .addModule(new BlackbirdModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    /**
+     * Blackbird for the Jackson 3 mapper that Spring MVC uses for request and response bodies;
+     * Boot registers every {@code JacksonModule} bean with its auto-configured {@code JsonMapper}.
+     */
+    @Bean
+    public tools.jackson.module.blackbird.BlackbirdModule jsonMapperBlackbirdModule() {
+        return new tools.jackson.module.blackbird.BlackbirdModule();
     }
 }
 
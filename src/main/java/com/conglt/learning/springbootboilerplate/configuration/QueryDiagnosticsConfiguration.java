@@ -0,0 +1,89 @@
+package com.conglt.learning.springbootboilerplate.configuration;
+
+import com.conglt.learning.springbootboilerplate.metrics.QueryDiagnostics;
+import com.conglt.learning.springbootboilerplate.metrics.QueryDiagnosticsEndpoint;
+import com.conglt.learning.springbootboilerplate.metrics.QueryDiagnosticsFilter;
+import com.conglt.learning.springbootboilerplate.metrics.StatementInspectingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Query Diagnostics Configuration: statement-level slow query and N+1 detection, replacing {@code show-sql}.
+ * Disable with {@code query-diagnostics.enabled=false}.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "query-diagnostics.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryDiagnosticsConfiguration {
+
+    @Bean
+    public QueryDiagnostics queryDiagnostics(
+            MeterRegistry meterRegistry,
+            @Value("${query-diagnostics.slow-threshold:200ms}") Duration slowThreshold,
+            @Value("${query-diagnostics.slow-buffer-size:200}") int bufferSize,
+            @Value("${query-diagnostics.n-plus-one-threshold:5}") int nPlusOneThreshold,
+            @Value("${query-diagnostics.log.sample-rate:0.001}") double logSampleRate,
+            @Value("${query-diagnostics.log.interval:60s}") Duration logInterval) {
+        return new QueryDiagnostics(meterRegistry, slowThreshold, bufferSize, nPlusOneThreshold,
+                logSampleRate, logInterval);
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryDiagnosticsFilter> queryDiagnosticsFilter(QueryDiagnostics queryDiagnostics) {
+        FilterRegistrationBean<QueryDiagnosticsFilter> registration =
+                new FilterRegistrationBean<>(new QueryDiagnosticsFilter(queryDiagnostics));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 3);
+        return registration;
+    }
+
+    @Bean
+    public QueryDiagnosticsEndpoint queryDiagnosticsEndpoint(QueryDiagnostics queryDiagnostics) {
+        return new QueryDiagnosticsEndpoint(queryDiagnostics);
+    }
+
+    /**
+     * Wraps the DataSource in a {@link StatementInspectingDataSource}.
+     * Runs before other post-processors so the connection limit of virtual-thread mode stays outermost
+     * and its wait time is not counted as statement time.
+     */
+    @Bean
+    public static BeanPostProcessor statementInspectingDataSourcePostProcessor(
+            ObjectProvider<QueryDiagnostics> queryDiagnostics) {
+        return new StatementInspectingPostProcessor(queryDiagnostics);
+    }
+
+    private static final class StatementInspectingPostProcessor implements BeanPostProcessor, PriorityOrdered {
+
+        private final ObjectProvider<QueryDiagnostics> queryDiagnostics;
+
+        private StatementInspectingPostProcessor(ObjectProvider<QueryDiagnostics> queryDiagnostics) {
+            this.queryDiagnostics = queryDiagnostics;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource) || bean instanceof StatementInspectingDataSource) {
+                return bean;
+            }
+            log.info("Inspecting statements of DataSource '{}' for slow queries and N+1 patterns", beanName);
+            return new StatementInspectingDataSource(dataSource, queryDiagnostics.getObject());
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
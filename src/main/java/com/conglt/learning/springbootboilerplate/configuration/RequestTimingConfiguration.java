@@ -0,0 +1,82 @@
+package com.conglt.learning.springbootboilerplate.configuration;
+
+import com.conglt.learning.springbootboilerplate.metrics.EntityLoadListener;
+import com.conglt.learning.springbootboilerplate.metrics.HandlerTimingInterceptor;
+import com.conglt.learning.springbootboilerplate.metrics.RepositoryTimingListener;
+import com.conglt.learning.springbootboilerplate.metrics.ServerTimingFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Request Timing Configuration: where the time of a request goes (JDBC, ORM, controller, serialization, JWT).
+ * Each part is recorded in Micrometer and summed per request into a {@code Server-Timing} header.
+ * Disable everything with {@code metrics.request-timing.enabled=false}, or only the header with
+ * {@code metrics.request-timing.server-timing-header=false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "metrics.request-timing.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestTimingConfiguration implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestTimingConfiguration(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(
+            @Value("${metrics.request-timing.server-timing-header:true}") boolean sendHeader) {
+        FilterRegistrationBean<ServerTimingFilter> registration =
+                new FilterRegistrationBean<>(new ServerTimingFilter(meterRegistry, sendHeader));
+        // ngay sau filter observation cua Spring Boot, truoc Spring Security de tinh ca thoi gian xac thuc JWT
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerTimingInterceptor(meterRegistry));
+    }
+
+    @Bean
+    public EntityLoadListener entityLoadListener(EntityManagerFactory entityManagerFactory) {
+        EntityLoadListener listener = new EntityLoadListener();
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .requireService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, listener);
+        return listener;
+    }
+
+    /**
+     * Adds {@link RepositoryTimingListener} to every Spring Data repository factory.
+     * Static so the post-processor is registered without initialising this configuration early.
+     */
+    @Bean
+    public static BeanPostProcessor repositoryTimingPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        RepositoryTimingListener listener = new RepositoryTimingListener(meterRegistry);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(listener));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -2,17 +2,24 @@ package com.conglt.learning.springbootboilerplate.configuration;
 
 import com.conglt.learning.springbootboilerplate.security.jwt.JwtAuthenticationEntryPoint;
 import com.conglt.learning.springbootboilerplate.security.jwt.JwtAuthenticationFilter;
-import com.conglt.learning.springbootboilerplate.security.jwt.JwtTokenProvider;
+import com.conglt.learning.springbootboilerplate.security.jwt.JwtTokenCache;
+import com.conglt.learning.springbootboilerplate.security.service.UserPrincipalCache;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.LoginUrlAuthenticationEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.AnyRequestMatcher;
 
 /**
  * Security Configuration for Spring Security with JWT authentication.
@@ -22,27 +29,47 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @RequiredArgsConstructor
 public class SecurityConfiguration {
 
-    private final JwtTokenProvider jwtTokenProvider;
+    private final JwtTokenCache jwtTokenCache;
+    private final UserPrincipalCache userPrincipalCache;
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
+    private final MeterRegistry meterRegistry;
 
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtTokenProvider);
+        return new JwtAuthenticationFilter(jwtTokenCache, userPrincipalCache, meterRegistry);
     }
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
-                .csrf(csrf -> csrf.disable())
+                // The API is bearer-token only; the web UI authenticates with a cookie, so its forms need CSRF tokens
+                .csrf(csrf -> csrf
+                        .csrfTokenRepository(new CookieCsrfTokenRepository())
+                        .requireCsrfProtectionMatcher(PathPatternRequestMatcher.withDefaults()
+                                .matcher(HttpMethod.POST, "/products/**"))
+                )
                 .cors(cors -> cors.disable())
-                .exceptionHandling(exceptionHandling ->
-                        exceptionHandling.authenticationEntryPoint(jwtAuthenticationEntryPoint)
+                .exceptionHandling(exceptionHandling -> exceptionHandling
+                        // Browsers on the web UI are sent to the login page instead of getting a 401
+                        .defaultAuthenticationEntryPointFor(new LoginUrlAuthenticationEntryPoint("/products/login"),
+                                PathPatternRequestMatcher.withDefaults().matcher("/products/**"))
+                        .defaultAuthenticationEntryPointFor(jwtAuthenticationEntryPoint, AnyRequestMatcher.INSTANCE)
                 )
                 .sessionManagement(sessionManagement ->
                         sessionManagement.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
                 .authorizeHttpRequests(authorizeRequests ->
                         authorizeRequests
+                                // Catalog writes and user administration are reserved to admins
+                                .requestMatchers(HttpMethod.POST, "/api/products/**", "/api/categories/**").hasRole("ADMIN")
+                                .requestMatchers(HttpMethod.PUT, "/api/products/**", "/api/categories/**").hasRole("ADMIN")
+                                .requestMatchers(HttpMethod.DELETE, "/api/products/**", "/api/categories/**").hasRole("ADMIN")
+                                .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                                // Slow SQL shapes and N+1 findings (and clearing them) are admin-only
+                                .requestMatchers("/actuator/querydiagnostics", "/actuator/querydiagnostics/**").hasRole("ADMIN")
+                                // Web UI writes go through the same rule as the API writes (login: /products/login)
+                                .requestMatchers("/products/save", "/products/new", "/products/edit/**",
+                                        "/products/delete/**").hasRole("ADMIN")
                                 .requestMatchers(
                                         "/register",
                                         "/login",
@@ -0,0 +1,91 @@
+package com.conglt.learning.springbootboilerplate.configuration;
+
+import com.conglt.learning.springbootboilerplate.threading.ConnectionLimitingDataSource;
+import com.conglt.learning.springbootboilerplate.threading.VirtualThreadPinningMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Virtual Thread Configuration, active when {@code spring.threads.virtual.enabled=true}.
+ * Spring Boot then serves requests, {@code @Async}/{@code @Scheduled} work and async MVC responses on
+ * virtual threads; this class adds the pieces Boot leaves out:
+ * a connection-pool-aware concurrency limit in front of the DataSource, and pinning detection.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfiguration {
+
+    /**
+     * Wraps the DataSource in a {@link ConnectionLimitingDataSource}.
+     * Static so the post-processor is registered without initialising this configuration early.
+     */
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConnectionLimitingDataSource) {
+                    return bean;
+                }
+                // mac dinh = kich thuoc pool, de thread ao xep hang o day thay vi tranh nhau trong Hikari
+                int poolSize = hikariPoolSize(dataSource);
+                int permits = environment.getProperty("virtual-threads.jdbc.max-concurrency", Integer.class, poolSize);
+                Duration maxWait = environment.getProperty("virtual-threads.jdbc.max-wait", Duration.class,
+                        Duration.ofSeconds(30));
+                log.info("Limiting DataSource '{}' to {} concurrent connections (max wait {}ms)",
+                        beanName, permits, maxWait.toMillis());
+                return new ConnectionLimitingDataSource(dataSource, permits, maxWait);
+            }
+        };
+    }
+
+    // pool co the da bi boc (vd StatementInspectingDataSource), nen unwrap thay vi instanceof
+    private static int hikariPoolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            log.warn("Cannot read the pool size of the DataSource, using 10 permits: {}", e.getMessage());
+        }
+        return 10;
+    }
+
+    @Bean
+    public MeterBinder connectionLimitMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConnectionLimitingDataSource limited) {
+                Gauge.builder("jdbc.connections.permits.available", limited,
+                                ConnectionLimitingDataSource::getAvailablePermits)
+                        .description("Connection permits not currently in use")
+                        .register(registry);
+                Gauge.builder("jdbc.connections.permits.waiting", limited,
+                                ConnectionLimitingDataSource::getWaitingThreads)
+                        .description("Threads waiting for a connection permit")
+                        .register(registry);
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "virtual-threads.pinning.enabled", havingValue = "true", matchIfMissing = true)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${virtual-threads.pinning.threshold:20ms}") Duration threshold) {
+        return new VirtualThreadPinningMonitor(meterRegistry, threshold);
+    }
+}
@@ -1,10 +1,18 @@
 package com.conglt.learning.springbootboilerplate.controller;
 
+import com.conglt.learning.springbootboilerplate.cache.PreparedResponseCache;
+import com.conglt.learning.springbootboilerplate.dto.CategoryNode;
+import com.conglt.learning.springbootboilerplate.dto.CursorPage;
+import com.conglt.learning.springbootboilerplate.dto.ProductView;
+import com.conglt.learning.springbootboilerplate.dto.Versioned;
 import com.conglt.learning.springbootboilerplate.model.Category;
 import com.conglt.learning.springbootboilerplate.service.CategoryService;
+import com.conglt.learning.springbootboilerplate.service.ProductService;
+import com.conglt.learning.springbootboilerplate.util.EntityTags;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -13,6 +21,8 @@ import java.util.List;
 @RequiredArgsConstructor //tiem service vao day
 public class CategoryController {
     private final CategoryService categoryService;
+    private final ProductService productService;
+    private final PreparedResponseCache preparedResponseCache;
 
     //API tao moi (post)
     @PostMapping
@@ -23,16 +33,53 @@ public class CategoryController {
     }
 
     //API lay danh sach (GET+id)
+    //ETag = version cua bang categories; client gui If-None-Match trung thi tra 304, khong gui lai body
+    //body da serialize + nen san (gzip/zstd) cho moi version, khong serialize lai moi request
     @GetMapping
-    public ResponseEntity<List<Category>> getAllCategories() {
-        return ResponseEntity.ok(categoryService.getAllCategories());
+    public ResponseEntity<byte[]> getAllCategories(WebRequest webRequest) {
+        //doc version truoc du lieu: neu co ghi xen giua thi version cu di voi du lieu moi, lan sau tu build lai
+        long version = categoryService.getCategoryListVersion();
+        return preparedResponseCache.respond(webRequest, "categories", version, categoryService::loadCategoryList);
+    }
+
+    //API cay danh muc (menu), doc tu bo nho khong truy van DB
+    @GetMapping("/tree")
+    public ResponseEntity<List<CategoryNode>> getCategoryTree(WebRequest webRequest) {
+        Versioned<List<CategoryNode>> tree = categoryService.getCategoryTree();
+        return EntityTags.conditional(webRequest, EntityTags.of("tree", Long.toHexString(tree.version())), -1L,
+                tree::value);
+    }
+
+    //API danh muc kem toan bo danh muc con chau
+    @GetMapping("/{id}/subtree")
+    public ResponseEntity<CategoryNode> getSubtree(@PathVariable Long id) {
+        return ResponseEntity.ok(categoryService.getSubtree(id));
+    }
+
+    //API breadcrumb: tu danh muc goc den danh muc nay
+    @GetMapping("/{id}/breadcrumb")
+    public ResponseEntity<List<CategoryNode>> getBreadcrumb(@PathVariable Long id) {
+        return ResponseEntity.ok(categoryService.getBreadcrumb(id));
+    }
+
+    //API san pham cua danh muc va cac danh muc con chau (phan trang bang cursor)
+    @GetMapping("/{id}/products")
+    public ResponseEntity<CursorPage<ProductView>> getCategoryTreeProducts(@PathVariable Long id,
+                                                                         @RequestParam(required = false) String cursor,
+                                                                         @RequestParam(required = false) Integer size,
+                                                                         WebRequest webRequest) {
+        String etag = EntityTags.of("products", productService.getCatalogDataVersion());
+        return EntityTags.conditional(webRequest, etag, -1L,
+                () -> productService.getCategoryTreeProductPage(id, cursor, size));
     }
 
     //API lay chi tiet theo ID (GET)
     @GetMapping("/{id}")
-    public ResponseEntity<Category> getCategoryById(@PathVariable Long id) {
+    public ResponseEntity<Category> getCategoryById(@PathVariable Long id, WebRequest webRequest) {
         //@PathVariable de lay id tu duong dan
-        return ResponseEntity.ok(categoryService.getCategoryById(id));
+        Category category = categoryService.getCategoryById(id);
+        String etag = EntityTags.of("c", category.getId(), EntityTags.micros(category.getUpdatedAt()));
+        return EntityTags.conditional(webRequest, etag, EntityTags.lastModified(category.getUpdatedAt()), () -> category);
     }
 
     //API cap nhat (PUT+id)
@@ -45,10 +45,11 @@ public class LoginController {
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Login successful",
             content = @Content(schema = @Schema(implementation = LoginResponse.class))),
-        @ApiResponse(responseCode = "400", description = "Invalid credentials")
+        @ApiResponse(responseCode = "400", description = "Invalid credentials"),
+        @ApiResponse(responseCode = "429", description = "Too many concurrent logins, retry after the Retry-After delay")
     })
     public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
-        log.info("Login attempt for user: {}", loginRequest.getUsername());
+        log.debug("Login attempt for user: {}", loginRequest.getUsername());
 
         LoginResponse response = userService.login(loginRequest);
 
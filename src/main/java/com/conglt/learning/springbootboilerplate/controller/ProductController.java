@@ -1,19 +1,43 @@
 package com.conglt.learning.springbootboilerplate.controller;
 
+import com.conglt.learning.springbootboilerplate.cache.PreparedResponseCache;
+import com.conglt.learning.springbootboilerplate.dto.BulkImportResult;
+import com.conglt.learning.springbootboilerplate.dto.CursorPage;
+import com.conglt.learning.springbootboilerplate.dto.ExportFormat;
+import com.conglt.learning.springbootboilerplate.dto.ProductSearchCriteria;
+import com.conglt.learning.springbootboilerplate.dto.ProductView;
 import com.conglt.learning.springbootboilerplate.model.Product;
+import com.conglt.learning.springbootboilerplate.service.ProductExportService;
+import com.conglt.learning.springbootboilerplate.service.ProductImportService;
 import com.conglt.learning.springbootboilerplate.service.ProductService;
+import com.conglt.learning.springbootboilerplate.util.EntityTags;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.objenesis.SpringObjenesis;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/products")
 @RequiredArgsConstructor
 public class ProductController {
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ProductExportService productExportService;
+    private final PreparedResponseCache preparedResponseCache;
 
     @PostMapping
     public ResponseEntity<Product> createProduct(@RequestBody Product product) {
@@ -21,14 +45,90 @@ public class ProductController {
         return ResponseEntity.ok(newProduct);
     }
 
+    //API import hang loat: body la mang JSON san pham, doc theo luong va ghi theo batch
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkImportResult> importProductsJson(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(productImportService.importJson(request.getInputStream()));
+    }
+
+    //API import hang loat tu CSV (dong dau tien la header)
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+    public ResponseEntity<BulkImportResult> importProductsCsv(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(productImportService.importCsv(request.getInputStream()));
+    }
+
+    //API lay danh sach theo trang (keyset pagination), truyen nextCursor de lay trang tiep
+    //ETag theo bo dem thay doi cua bang: client gui If-None-Match -> 304, khong query trang
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<?> getAllProducts(@RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer size,
+                                            WebRequest webRequest) {
+        long version = productService.getCatalogDataVersion();
+        if (cursor == null && size == null) {
+            //trang dau mac dinh la trang bi goi nhieu nhat: tra ban da serialize + nen san
+            return preparedResponseCache.respond(webRequest, "products-first-page", version,
+                    () -> productService.getProductPage(null, null));
+        }
+        return EntityTags.conditional(webRequest, EntityTags.of("products", version), -1L,
+                () -> productService.getProductPage(cursor, size));
+    }
+
+    //API tim kiem theo ten/mo ta (khop tien to + go sai chinh ta), loc theo gia va danh muc
+    @GetMapping("/search")
+    public ResponseEntity<CursorPage<ProductView>> searchProducts(@RequestParam String q,
+                                                                  @RequestParam(required = false) BigDecimal minPrice,
+                                                                  @RequestParam(required = false) BigDecimal maxPrice,
+                                                                  @RequestParam(required = false) Long categoryId,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer size) {
+        ProductSearchCriteria criteria = ProductSearchCriteria.builder()
+                .query(q)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .categoryId(categoryId)
+                .build();
+        return ResponseEntity.ok(productService.searchProducts(criteria, cursor, size));
+    }
+
+    //Accept: application/x-ndjson -> stream toan bo san pham, moi dong mot JSON, bo nho khong doi
+    @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllProducts() {
+        StreamingResponseBody body = outputStream -> productExportService.export(ExportFormat.NDJSON, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(body);
+    }
+
+    //API export toan bo catalog (csv | ndjson), co the nen gzip; bo nho khong phu thuoc so san pham
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(defaultValue = "csv") String format,
+                                                                @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        String filename = "products-" + LocalDate.now() + "." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+
+        StreamingResponseBody body = outputStream -> {
+            if (gzip) {
+                GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream, 64 * 1024);
+                productExportService.export(exportFormat, gzipStream);
+                gzipStream.finish();
+            } else {
+                productExportService.export(exportFormat, outputStream);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
     }
 
+    //ETag tu id + updatedAt (+ ten danh muc) cua chinh ban duoc tra ve; view lay tu cache nen 304 thuong khong ton query
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProductById(id));
+    public ResponseEntity<ProductView> getProductById(@PathVariable Long id, WebRequest webRequest) {
+        ProductView product = productService.getProductViewById(id);
+        String etag = EntityTags.of("p", product.getId(), EntityTags.micros(product.getUpdatedAt()),
+                product.getCategoryId(), EntityTags.digest(product.getCategoryName()));
+        return EntityTags.conditional(webRequest, etag, EntityTags.lastModified(product.getUpdatedAt()), () -> product);
     }
 
     @PutMapping("/{id}")
@@ -43,7 +143,9 @@ public class ProductController {
     }
 
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<List<Product>> getProductsByCategoryId(@PathVariable Long categoryId) {
-        return ResponseEntity.ok(productService.getProductsByCategoryId(categoryId));
+    public ResponseEntity<List<ProductView>> getProductsByCategoryId(@PathVariable Long categoryId,
+                                                                     WebRequest webRequest) {
+        String etag = EntityTags.of("products", productService.getCatalogDataVersion());
+        return EntityTags.conditional(webRequest, etag, -1L, () -> productService.getProductsByCategoryId(categoryId));
     }
 }
@@ -1,25 +1,74 @@
 package com.conglt.learning.springbootboilerplate.controller;
 
+import com.conglt.learning.springbootboilerplate.cache.ProductListFragmentCache;
+import com.conglt.learning.springbootboilerplate.dto.ProductListCriteria;
 import com.conglt.learning.springbootboilerplate.model.Product;
-import com.conglt.learning.springbootboilerplate.repository.CategoryRepository;
+import com.conglt.learning.springbootboilerplate.model.UserRole;
+import com.conglt.learning.springbootboilerplate.security.dto.LoginRequest;
+import com.conglt.learning.springbootboilerplate.security.dto.LoginResponse;
+import com.conglt.learning.springbootboilerplate.security.jwt.JwtAuthenticationFilter;
+import com.conglt.learning.springbootboilerplate.security.service.UserService;
+import com.conglt.learning.springbootboilerplate.service.CategoryService;
 import com.conglt.learning.springbootboilerplate.service.ProductService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.csrf.CsrfToken;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+
 @Controller
 @RequestMapping("/products")
 @RequiredArgsConstructor
 public class ProductWebController {
 
     private final ProductService productService;
-    private final CategoryRepository categoryRepository;
+    private final CategoryService categoryService;
+    private final ProductListFragmentCache productListFragmentCache;
+
+    private final UserService userService;
+
+    @Value("${product.pagination.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${jwt.expirationMinute}")
+    private int tokenExpirationMinute;
+
+    // Tạo token CSRF trước khi render, để cookie XSRF-TOKEN được gửi trong header trước khi body được ghi
+    @ModelAttribute
+    public void loadCsrfToken(CsrfToken csrfToken) {
+        if (csrfToken != null) {
+            csrfToken.getToken();
+        }
+    }
 
-    // 1. Xem danh sách
+    // Người đăng nhập (null nếu là khách) và quyền admin, dùng để ẩn/hiện nút thêm, sửa, xóa
+    @ModelAttribute("username")
+    public String username(Authentication authentication) {
+        return authentication != null ? authentication.getName() : null;
+    }
+
+    @ModelAttribute("admin")
+    public boolean admin(Authentication authentication) {
+        return isAdmin(authentication);
+    }
+
+    // 1. Xem danh sách (lọc, sắp xếp, phân trang trên server; các dòng được cache theo catalog version)
     @GetMapping
-    public String listProducts(Model model) {
-        model.addAttribute("productList", productService.getAllProducts());
+    public String listProducts(@ModelAttribute("criteria") ProductListCriteria criteria, Authentication authentication,
+                               HttpServletRequest request, HttpServletResponse response, Model model) {
+        if (criteria.getSize() == null) {
+            criteria.setSize(defaultPageSize);
+        }
+        model.addAttribute("page", productListFragmentCache.get(criteria, isAdmin(authentication), request, response));
+        model.addAttribute("categories", categoryService.getAllCategories());
         return "product-list";
     }
 
@@ -28,7 +77,7 @@ public class ProductWebController {
     public String showNewProductForm(Model model) {
         Product product = new Product();
         model.addAttribute("product", product);
-        model.addAttribute("categories", categoryRepository.findAll());
+        model.addAttribute("categories", categoryService.getAllCategories());
         return "product-form";
     }
 
@@ -40,13 +89,13 @@ public class ProductWebController {
         model.addAttribute("product", product);
 
         // QUAN TRỌNG: Phải gửi lại danh sách danh mục để người dùng chọn lại nếu muốn
-        model.addAttribute("categories", categoryRepository.findAll());
+        model.addAttribute("categories", categoryService.getAllCategories());
 
         return "product-form"; // Tái sử dụng form thêm mới
     }
 
-    // 4. Xóa (Delete) - MỚI
-    @GetMapping("/delete/{id}")
+    // 4. Xóa (Delete) - POST để link/crawler không xóa được dữ liệu
+    @PostMapping("/delete/{id}")
     public String deleteProduct(@PathVariable("id") Long id) {
         productService.deleteProduct(id); // Cần đảm bảo Service có hàm này
         return "redirect:/products";
@@ -59,4 +108,47 @@ public class ProductWebController {
         productService.createProduct(product);
         return "redirect:/products";
     }
-}
\ No newline at end of file
+
+    // 6. Đăng nhập web: dùng lại UserService.login, JWT được lưu trong cookie HttpOnly chỉ gửi cho /products
+    @GetMapping("/login")
+    public String showLoginForm() {
+        return "login";
+    }
+
+    @PostMapping("/login")
+    public String login(@RequestParam String username, @RequestParam String password,
+                        HttpServletRequest request, HttpServletResponse response) {
+        LoginResponse login;
+        try {
+            login = userService.login(new LoginRequest(username, password));
+        } catch (IllegalArgumentException e) {
+            return "redirect:/products/login?error";
+        }
+        addTokenCookie(request, response, login.getToken(), Duration.ofMinutes(tokenExpirationMinute));
+        return "redirect:/products";
+    }
+
+    // 7. Đăng xuất: xóa cookie
+    @PostMapping("/logout")
+    public String logout(HttpServletRequest request, HttpServletResponse response) {
+        addTokenCookie(request, response, "", Duration.ZERO);
+        return "redirect:/products";
+    }
+
+    private static void addTokenCookie(HttpServletRequest request, HttpServletResponse response,
+                                       String token, Duration maxAge) {
+        ResponseCookie cookie = ResponseCookie.from(JwtAuthenticationFilter.WEB_TOKEN_COOKIE, token)
+                .httpOnly(true)
+                .secure(request.isSecure())
+                .sameSite("Strict")
+                .path(request.getContextPath() + JwtAuthenticationFilter.WEB_PATH)
+                .maxAge(maxAge)
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> UserRole.ROLE_ADMIN.name().equals(authority.getAuthority()));
+    }
+}
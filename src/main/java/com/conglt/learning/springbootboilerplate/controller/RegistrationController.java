@@ -48,7 +48,7 @@ public class RegistrationController {
         @ApiResponse(responseCode = "400", description = "Invalid input or user already exists")
     })
     public ResponseEntity<RegistrationResponse> register(@Valid @RequestBody RegistrationRequest registrationRequest) {
-        log.info("Registration attempt for user: {}", registrationRequest.getUsername());
+        log.debug("Registration attempt for user: {}", registrationRequest.getUsername());
 
         RegistrationResponse response = userService.registration(registrationRequest);
 
@@ -0,0 +1,39 @@
+package com.conglt.learning.springbootboilerplate.controller;
+
+import com.conglt.learning.springbootboilerplate.dto.StockReservation;
+import com.conglt.learning.springbootboilerplate.dto.StockReservationRequest;
+import com.conglt.learning.springbootboilerplate.service.StockService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/stock")
+@RequiredArgsConstructor
+public class StockController {
+    private final StockService stockService;
+
+    //API giu hang (chua tru kho)
+    @PostMapping("/reservations")
+    public ResponseEntity<StockReservation> reserve(@Valid @RequestBody StockReservationRequest request) {
+        StockReservation reservation = stockService.reserve(request.getProductId(), request.getQuantity());
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservation);
+    }
+
+    //API xac nhan, tru kho that su
+    @PostMapping("/reservations/{id}/commit")
+    public ResponseEntity<StockReservation> commit(@PathVariable UUID id) {
+        return ResponseEntity.ok(stockService.commit(id));
+    }
+
+    //API huy giu hang
+    @DeleteMapping("/reservations/{id}")
+    public ResponseEntity<String> release(@PathVariable UUID id) {
+        stockService.release(id);
+        return ResponseEntity.ok("Reservation released successfully");
+    }
+}
@@ -0,0 +1,79 @@
+package com.conglt.learning.springbootboilerplate.controller;
+
+import com.conglt.learning.springbootboilerplate.security.dto.UpdateUserRoleRequest;
+import com.conglt.learning.springbootboilerplate.security.dto.UpdateUserStatusRequest;
+import com.conglt.learning.springbootboilerplate.security.dto.UserAccountResponse;
+import com.conglt.learning.springbootboilerplate.security.mapper.UserMapper;
+import com.conglt.learning.springbootboilerplate.security.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.validation.Valid;
+
+/**
+ * REST Controller for user administration (ROLE_ADMIN only).
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/users")
+@RequiredArgsConstructor
+@Validated
+@Tag(name = "User Administration", description = "Role and account status management")
+public class UserAdminController {
+
+    private final UserService userService;
+    private final UserMapper userMapper;
+
+    /**
+     * Change the role of a user.
+     *
+     * @param id      the user id
+     * @param request the new role
+     * @return ResponseEntity with the updated account
+     */
+    @PutMapping("/{id}/role")
+    @Operation(summary = "Change user role", description = "Grant or revoke ROLE_ADMIN")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Role changed",
+            content = @Content(schema = @Schema(implementation = UserAccountResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input or user not found")
+    })
+    public ResponseEntity<UserAccountResponse> updateRole(@PathVariable Long id,
+                                                          @Valid @RequestBody UpdateUserRoleRequest request) {
+        log.info("Changing role of user {} to {}", id, request.getRole());
+        return ResponseEntity.ok(userMapper.userToAccountResponse(userService.updateRole(id, request.getRole())));
+    }
+
+    /**
+     * Enable or disable a user.
+     *
+     * @param id      the user id
+     * @param request the new status
+     * @return ResponseEntity with the updated account
+     */
+    @PutMapping("/{id}/status")
+    @Operation(summary = "Enable or disable user", description = "Disabled users cannot log in and their tokens stop working")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Status changed",
+            content = @Content(schema = @Schema(implementation = UserAccountResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input or user not found")
+    })
+    public ResponseEntity<UserAccountResponse> updateStatus(@PathVariable Long id,
+                                                            @Valid @RequestBody UpdateUserStatusRequest request) {
+        log.info("Setting user {} active={}", id, request.getActive());
+        return ResponseEntity.ok(userMapper.userToAccountResponse(userService.updateActive(id, request.getActive())));
+    }
+}
@@ -0,0 +1,35 @@
+package com.conglt.learning.springbootboilerplate.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk product import.
+ * {@code errors} is capped by {@code product.import.max-errors}; {@code failed} always holds the full count.
+ * {@code aborted} is set when a malformed body stopped the import; rows before that point stay imported
+ * and the last error says where it stopped.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkImportResult {
+
+    private long received;
+
+    private long imported;
+
+    private long failed;
+
+    private long elapsedMillis;
+
+    private long rowsPerSecond;
+
+    private List<ImportRowError> errors;
+
+    private boolean aborted;
+}
@@ -0,0 +1,18 @@
+package com.conglt.learning.springbootboilerplate.dto;
+
+import java.util.List;
+
+/**
+ * Immutable node of the category tree, served from memory (see {@code CategoryTreeSnapshot}).
+ * Breadcrumb entries carry no children.
+ */
+public record CategoryNode(Long id, String name, String icon, Long parentId, int depth, List<CategoryNode> children) {
+
+    public CategoryNode {
+        children = List.copyOf(children);
+    }
+
+    public CategoryNode withoutChildren() {
+        return children.isEmpty() ? this : new CategoryNode(id, name, icon, parentId, depth, List.of());
+    }
+}
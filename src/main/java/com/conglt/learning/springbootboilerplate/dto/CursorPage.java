@@ -0,0 +1,27 @@
+package com.conglt.learning.springbootboilerplate.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ * The next page is requested by sending {@code nextCursor} back as the {@code cursor} parameter.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPage<T> {
+
+    private List<T> items;
+
+    private int size;
+
+    private boolean hasNext;
+
+    private String nextCursor;
+}
@@ -0,0 +1,43 @@
+package com.conglt.learning.springbootboilerplate.dto;
+
+import java.util.Locale;
+
+/**
+ * Output formats of the catalog export.
+ */
+public enum ExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson"),
+    JSON("application/json", "json");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Parse a format name case-insensitively.
+     *
+     * @param value the format name, e.g. "csv"
+     * @return the matching format
+     * @throws IllegalArgumentException if the format is not supported
+     */
+    public static ExportFormat from(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported export format: " + value);
+        }
+    }
+}
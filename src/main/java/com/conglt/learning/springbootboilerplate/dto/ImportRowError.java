@@ -0,0 +1,23 @@
+package com.conglt.learning.springbootboilerplate.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A rejected row of a bulk import.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportRowError {
+
+    /**
+     * 1-based position of the row in the request (CSV header excluded).
+     */
+    private long row;
+
+    private String message;
+}
@@ -0,0 +1,32 @@
+package com.conglt.learning.springbootboilerplate.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One product of a bulk import request (JSON array element or CSV record).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ProductImportRow {
+
+    private String name;
+
+    private String description;
+
+    private BigDecimal price;
+
+    private Integer stock;
+
+    private String imageUrl;
+
+    private Long categoryId;
+}
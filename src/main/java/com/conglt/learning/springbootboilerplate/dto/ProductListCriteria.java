@@ -0,0 +1,29 @@
+package com.conglt.learning.springbootboilerplate.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filters, sort order and position of one page of the product list (web UI).
+ * Every field is optional; the default is all products by id.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductListCriteria {
+
+    private Long categoryId;
+
+    //tim theo mot phan cua ten (ILIKE, dung GIN trigram index)
+    private String name;
+
+    @Builder.Default
+    private ProductSort sort = ProductSort.ID_ASC;
+
+    private String cursor;
+
+    private Integer size;
+}
@@ -0,0 +1,26 @@
+package com.conglt.learning.springbootboilerplate.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Filters of a product search. Only {@code query} is required.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductSearchCriteria {
+
+    private String query;
+
+    private BigDecimal minPrice;
+
+    private BigDecimal maxPrice;
+
+    private Long categoryId;
+}
@@ -0,0 +1,13 @@
+package com.conglt.learning.springbootboilerplate.dto;
+
+/**
+ * Sort orders of the product list. Each one is backed by an index ending in {@code id},
+ * which also serves as tie-breaker for keyset pagination.
+ */
+public enum ProductSort {
+    ID_ASC,
+    ID_DESC,
+    PRICE_ASC,
+    PRICE_DESC,
+    NEWEST
+}
@@ -0,0 +1,36 @@
+package com.conglt.learning.springbootboilerplate.dto;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read model for product listings and details.
+ * Loaded with a flat column projection joined to categories, so a list costs a single query
+ * and only the category id and name are sent instead of the whole Category entity.
+ * Immutable, because the products cache hands the same instance to every reader.
+ */
+@Value
+public class ProductView {
+
+    private Long id;
+
+    private String name;
+
+    private String description;
+
+    private BigDecimal price;
+
+    private Integer stock;
+
+    private String imageUrl;
+
+    private Long categoryId;
+
+    private String categoryName;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+}
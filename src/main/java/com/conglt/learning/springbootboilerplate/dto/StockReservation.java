@@ -0,0 +1,27 @@
+package com.conglt.learning.springbootboilerplate.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A hold on some units of a product's stock, valid until {@code expiresAt} unless committed or released.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservation {
+
+    private UUID id;
+
+    private Long productId;
+
+    private int quantity;
+
+    private Instant expiresAt;
+}
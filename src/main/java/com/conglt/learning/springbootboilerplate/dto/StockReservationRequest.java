@@ -0,0 +1,24 @@
+package com.conglt.learning.springbootboilerplate.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a stock reservation request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationRequest {
+
+    @NotNull(message = "Product id is required")
+    private Long productId;
+
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private int quantity;
+}
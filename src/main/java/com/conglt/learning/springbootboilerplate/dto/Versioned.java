@@ -0,0 +1,10 @@
+package com.conglt.learning.springbootboilerplate.dto;
+
+/**
+ * A value together with the version of the data it was read from, used to build collection ETags.
+ *
+ * @param version changes whenever the value may have changed
+ * @param value   the value read at (or after) that version
+ */
+public record Versioned<T>(long version, T value) {
+}
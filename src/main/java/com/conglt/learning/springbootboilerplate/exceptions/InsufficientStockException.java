@@ -0,0 +1,11 @@
+package com.conglt.learning.springbootboilerplate.exceptions;
+
+/**
+ * Thrown when a reservation or commit asks for more units than are available.
+ */
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException(Long productId, int requested) {
+        super("Insufficient stock for product " + productId + ": requested " + requested);
+    }
+}
@@ -0,0 +1,19 @@
+package com.conglt.learning.springbootboilerplate.exceptions;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Thrown when password hashing is saturated and a login or registration cannot be queued.
+ */
+@Getter
+public class LoginThrottledException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public LoginThrottledException(Duration retryAfter) {
+        super("Too many login attempts, please retry later");
+        this.retryAfter = retryAfter;
+    }
+}
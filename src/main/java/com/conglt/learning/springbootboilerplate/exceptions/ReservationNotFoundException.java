@@ -0,0 +1,13 @@
+package com.conglt.learning.springbootboilerplate.exceptions;
+
+import java.util.UUID;
+
+/**
+ * Thrown when a stock reservation does not exist, has expired, or was already committed or released.
+ */
+public class ReservationNotFoundException extends RuntimeException {
+
+    public ReservationNotFoundException(UUID reservationId) {
+        super("Reservation not found or expired: " + reservationId);
+    }
+}
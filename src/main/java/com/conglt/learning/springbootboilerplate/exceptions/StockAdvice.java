@@ -0,0 +1,51 @@
+package com.conglt.learning.springbootboilerplate.exceptions;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.LocalDateTime;
+
+/**
+ * Exception Handler for stock reservation errors.
+ * Ordered before {@link AuthenticationAdvice}, whose RuntimeException handler would otherwise answer 500.
+ */
+@Slf4j
+@RestControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class StockAdvice {
+
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<ApiExceptionResponse> handleInsufficientStock(
+            InsufficientStockException ex,
+            HttpServletRequest request) {
+
+        log.warn("Stock error: {}", ex.getMessage());
+        return build(HttpStatus.CONFLICT, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(ReservationNotFoundException.class)
+    public ResponseEntity<ApiExceptionResponse> handleReservationNotFound(
+            ReservationNotFoundException ex,
+            HttpServletRequest request) {
+
+        log.warn("Stock error: {}", ex.getMessage());
+        return build(HttpStatus.NOT_FOUND, ex.getMessage(), request);
+    }
+
+    private ResponseEntity<ApiExceptionResponse> build(HttpStatus status, String message, HttpServletRequest request) {
+        ApiExceptionResponse response = ApiExceptionResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(status.value())
+                .message(message)
+                .path(request.getServletPath())
+                .build();
+
+        return new ResponseEntity<>(response, status);
+    }
+}
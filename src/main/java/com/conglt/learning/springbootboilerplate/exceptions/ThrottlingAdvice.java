@@ -0,0 +1,42 @@
+package com.conglt.learning.springbootboilerplate.exceptions;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.LocalDateTime;
+
+/**
+ * Exception Handler for load-shedding errors, answered with 429 and a Retry-After header.
+ * Ordered before {@link AuthenticationAdvice}, whose RuntimeException handler would otherwise answer 500.
+ */
+@Slf4j
+@RestControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ThrottlingAdvice {
+
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<ApiExceptionResponse> handleLoginThrottled(
+            LoginThrottledException ex,
+            HttpServletRequest request) {
+
+        log.warn("Login throttled: {}", request.getServletPath());
+
+        ApiExceptionResponse response = ApiExceptionResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .message(ex.getMessage())
+                .path(request.getServletPath())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(response);
+    }
+}
@@ -0,0 +1,67 @@
+package com.conglt.learning.springbootboilerplate.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Reusable {@link ObjectWriter}s of the shared ObjectMapper, one per value type.
+ * A writer resolves its root serializer once, so writing many values of one type skips the per-call
+ * lookup done by {@code ObjectMapper.writeValue}. Writers are immutable and thread-safe, and do not flush
+ * the generator after each value (the caller decides when to flush a stream).
+ * Large collections should be written element by element to a {@link #createGenerator generator}
+ * instead of being collected into a list first.
+ */
+@Component
+public class JsonWriters {
+
+    private final ObjectMapper objectMapper;
+
+    private final ClassValue<ObjectWriter> writers = new ClassValue<>() {
+        @Override
+        protected ObjectWriter computeValue(Class<?> type) {
+            return objectMapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+    };
+
+    private final ClassValue<ObjectWriter> listWriters = new ClassValue<>() {
+        @Override
+        protected ObjectWriter computeValue(Class<?> elementType) {
+            return objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, elementType))
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+    };
+
+    public JsonWriters(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return the writer for values of exactly {@code type}
+     */
+    public ObjectWriter forType(Class<?> type) {
+        return writers.get(type);
+    }
+
+    /**
+     * @return the writer for a {@code List} whose elements are of {@code elementType}
+     */
+    public ObjectWriter forListOf(Class<?> elementType) {
+        return listWriters.get(elementType);
+    }
+
+    /**
+     * Open a generator on a stream owned by the caller; closing the generator leaves the stream open.
+     */
+    public JsonGenerator createGenerator(OutputStream outputStream) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+}
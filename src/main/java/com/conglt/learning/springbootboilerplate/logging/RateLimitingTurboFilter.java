@@ -0,0 +1,112 @@
+package com.conglt.learning.springbootboilerplate.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback turbo filter that rate-limits repetitive messages of selected loggers (and their children).
+ * Each message template gets a token bucket of {@code burst} events refilled at {@code permitsPerSecond};
+ * events over the limit are denied before a logging event is even created. WARN and above always pass.
+ * <pre>{@code
+ * <turboFilter class="...logging.RateLimitingTurboFilter">
+ *     <loggers>com.example.HealthController,org.springframework.security</loggers>
+ *     <permitsPerSecond>1</permitsPerSecond>
+ *     <burst>5</burst>
+ * </turboFilter>
+ * }</pre>
+ */
+public class RateLimitingTurboFilter extends TurboFilter {
+
+    private static final int MAX_BUCKETS = 10_000;
+
+    private String[] loggers = new String[0];
+    private double permitsPerSecond = 1;
+    private int burst = 10;
+    private long nanosPerPermit;
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public void setLoggers(String loggers) {
+        this.loggers = loggers.trim().split("\\s*,\\s*");
+    }
+
+    public void setPermitsPerSecond(double permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+    }
+
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    @Override
+    public void start() {
+        if (permitsPerSecond <= 0 || burst <= 0) {
+            addError("permitsPerSecond and burst must be positive");
+            return;
+        }
+        nanosPerPermit = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        if (!isStarted() || format == null || level == null || level.isGreaterOrEqual(Level.WARN)
+                || !logger.isEnabledFor(level) || !matches(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        // khoa theo mau thong diep (chua format) nen khong cap phat chuoi moi cho moi lan log
+        Bucket bucket = buckets.get(format);
+        if (bucket == null) {
+            if (buckets.size() >= MAX_BUCKETS) {
+                return FilterReply.NEUTRAL;
+            }
+            bucket = buckets.computeIfAbsent(format, key -> new Bucket(System.nanoTime() - burst * nanosPerPermit));
+        }
+        return bucket.tryAcquire(System.nanoTime(), nanosPerPermit, burst) ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private boolean matches(String loggerName) {
+        for (String prefix : loggers) {
+            if (loggerName.startsWith(prefix)
+                    && (loggerName.length() == prefix.length() || loggerName.charAt(prefix.length()) == '.')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Token bucket as a single "theoretical arrival time" (GCRA): a permit is available while
+     * taking it does not push {@code tat} past now; idle time refills at most {@code burst} permits.
+     */
+    private static final class Bucket {
+
+        private final AtomicLong tat;
+
+        private Bucket(long initial) {
+            this.tat = new AtomicLong(initial);
+        }
+
+        boolean tryAcquire(long now, long interval, int burst) {
+            while (true) {
+                long current = tat.get();
+                long next = Math.max(current, now - burst * interval) + interval;
+                if (next > now) {
+                    return false;
+                }
+                if (tat.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
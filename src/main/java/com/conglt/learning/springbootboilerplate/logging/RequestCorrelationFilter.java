@@ -0,0 +1,57 @@
+package com.conglt.learning.springbootboilerplate.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Puts a request id in the MDC ({@code requestId}) for every log line of the request and echoes it in the
+ * {@code X-Request-Id} response header. A well-formed incoming {@code X-Request-Id} (e.g. from a gateway) is
+ * reused; otherwise a random 64-bit hex id is generated, which unlike {@code UUID.randomUUID()} does not
+ * touch {@code SecureRandom}.
+ */
+public class RequestCorrelationFilter extends OncePerRequestFilter {
+
+    public static final String HEADER_REQUEST_ID = "X-Request-Id";
+    public static final String MDC_REQUEST_ID = "requestId";
+
+    private static final int MAX_REQUEST_ID_LENGTH = 64;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String requestId = request.getHeader(HEADER_REQUEST_ID);
+        if (!isValid(requestId)) {
+            requestId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        }
+        MDC.put(MDC_REQUEST_ID, requestId);
+        response.setHeader(HEADER_REQUEST_ID, requestId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_REQUEST_ID);
+        }
+    }
+
+    /**
+     * Only short ids of letters, digits, '-', '_' and '.' are accepted, so a client cannot inject log content.
+     */
+    private static boolean isValid(String requestId) {
+        if (requestId == null || requestId.isEmpty() || requestId.length() > MAX_REQUEST_ID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < requestId.length(); i++) {
+            char c = requestId.charAt(i);
+            if (!(Character.isLetterOrDigit(c) && c < 128) && c != '-' && c != '_' && c != '.') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
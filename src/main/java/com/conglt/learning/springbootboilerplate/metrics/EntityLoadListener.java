@@ -0,0 +1,15 @@
+package com.conglt.learning.springbootboilerplate.metrics;
+
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+
+/**
+ * Counts entities hydrated by Hibernate for the current {@link RequestTimings}.
+ */
+public class EntityLoadListener implements PostLoadEventListener {
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        RequestTimings.entityLoaded();
+    }
+}
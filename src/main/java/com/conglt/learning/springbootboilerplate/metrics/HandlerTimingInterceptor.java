@@ -0,0 +1,72 @@
+package com.conglt.learning.springbootboilerplate.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per controller method timers: {@code http.server.handler} (the method itself, plus view rendering for pages)
+ * and {@code http.server.serialization} (writing a {@code @ResponseBody}), tagged controller and method.
+ * The split point is marked by {@link ServerTimingResponseBodyAdvice}.
+ */
+public class HandlerTimingInterceptor implements HandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, HandlerMeters> meters = new ConcurrentHashMap<>();
+
+    public HandlerTimingInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            RequestTimings.handlerStarted();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        RequestTimings timings = RequestTimings.current();
+        if (timings == null || !(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        timings.handlerFinished();
+        HandlerMeters handlerMeters = meters.computeIfAbsent(handlerMethod.getMethod(),
+                method -> new HandlerMeters(meterRegistry, handlerMethod));
+        if (timings.handlerNanos() >= 0) {
+            handlerMeters.handler.record(timings.handlerNanos(), TimeUnit.NANOSECONDS);
+        }
+        if (timings.serializationNanos() >= 0) {
+            handlerMeters.serialization.record(timings.serializationNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static final class HandlerMeters {
+        private final Timer handler;
+        private final Timer serialization;
+
+        HandlerMeters(MeterRegistry registry, HandlerMethod handlerMethod) {
+            String controller = handlerMethod.getBeanType().getSimpleName();
+            String method = handlerMethod.getMethod().getName();
+            this.handler = Timer.builder("http.server.handler")
+                    .description("Controller method execution time, excluding response serialization")
+                    .tags("controller", controller, "method", method)
+                    .register(registry);
+            this.serialization = Timer.builder("http.server.serialization")
+                    .description("Time to serialize and write the response body")
+                    .tags("controller", controller, "method", method)
+                    .register(registry);
+        }
+    }
+}
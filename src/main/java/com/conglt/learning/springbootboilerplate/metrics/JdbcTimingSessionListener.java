@@ -0,0 +1,31 @@
+package com.conglt.learning.springbootboilerplate.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Adds Hibernate's JDBC statement and batch execution time to the current {@link RequestTimings}.
+ * Registered for every session through {@code hibernate.session.events.auto}; stateless, since the
+ * start time lives in the request's timings.
+ */
+public class JdbcTimingSessionListener implements SessionEventListener {
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        RequestTimings.jdbcStarted();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestTimings.jdbcFinished(1);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        RequestTimings.jdbcStarted();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestTimings.jdbcFinished(1);
+    }
+}
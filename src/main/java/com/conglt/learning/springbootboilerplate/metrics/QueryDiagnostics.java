@@ -0,0 +1,227 @@
+package com.conglt.learning.springbootboilerplate.metrics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Collects what {@link StatementInspectingDataSource} sees:
+ * <ul>
+ *     <li>slow statements (above {@code slowThreshold}) with their bind-parameter types, in a bounded ring buffer</li>
+ *     <li>N+1 patterns: the same SQL run {@code nPlusOneThreshold} times or more within one HTTP request</li>
+ * </ul>
+ * Logging is sampled: a fraction of all statements at DEBUG, and each slow shape or N+1 finding at most once per
+ * {@code logInterval} at WARN. Read through the {@code querydiagnostics} actuator endpoint.
+ */
+@Slf4j
+public class QueryDiagnostics {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final int MAX_SQL_LENGTH = 2000;
+
+    private final Duration slowThreshold;
+    private final long slowThresholdNanos;
+    private final int nPlusOneThreshold;
+    private final double logSampleRate;
+    private final long logIntervalNanos;
+
+    private final ThreadLocal<Map<String, int[]>> requestStatements = new ThreadLocal<>();
+    private final Cache<String, String> normalizedSql = Caffeine.newBuilder().maximumSize(2_000).build();
+    private final Cache<String, Long> lastLogged = Caffeine.newBuilder().maximumSize(2_000).build();
+
+    private final SlowQuery[] slowQueries;
+    private long slowQueryCount;
+    private final Map<String, NPlusOneFinding> nPlusOneFindings = new HashMap<>();
+    private final int maxFindings;
+
+    private final AtomicLong statements = new AtomicLong();
+    private final Counter slowCounter;
+    private final Counter nPlusOneCounter;
+
+    public QueryDiagnostics(MeterRegistry meterRegistry, Duration slowThreshold, int bufferSize,
+                            int nPlusOneThreshold, double logSampleRate, Duration logInterval) {
+        this.slowThreshold = slowThreshold;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.logSampleRate = logSampleRate;
+        this.logIntervalNanos = logInterval.toNanos();
+        this.slowQueries = new SlowQuery[bufferSize];
+        this.maxFindings = bufferSize;
+        this.slowCounter = Counter.builder("jdbc.statements.slow")
+                .description("Statements slower than query-diagnostics.slow-threshold")
+                .register(meterRegistry);
+        this.nPlusOneCounter = Counter.builder("jdbc.statements.n-plus-one")
+                .description("Requests that repeated one statement at least query-diagnostics.n-plus-one-threshold times")
+                .register(meterRegistry);
+        FunctionCounter.builder("jdbc.statements.executed", statements, AtomicLong::get)
+                .description("Statements executed through the DataSource")
+                .register(meterRegistry);
+    }
+
+    void requestStarted() {
+        requestStatements.set(new HashMap<>());
+    }
+
+    /**
+     * End the current request's statement log and record N+1 patterns found in it.
+     *
+     * @param endpoint e.g. {@code GET /api/products}
+     */
+    void requestFinished(String endpoint) {
+        Map<String, int[]> counts = requestStatements.get();
+        requestStatements.remove();
+        if (counts == null) {
+            return;
+        }
+        for (Map.Entry<String, int[]> entry : counts.entrySet()) {
+            int repetitions = entry.getValue()[0];
+            if (repetitions >= nPlusOneThreshold) {
+                nPlusOneDetected(endpoint, entry.getKey(), repetitions);
+            }
+        }
+    }
+
+    void statementExecuted(String sql, String[] parameterTypes, int count, long nanos) {
+        statements.addAndGet(count);
+        String shape = normalize(sql);
+
+        Map<String, int[]> counts = requestStatements.get();
+        if (counts != null) {
+            counts.computeIfAbsent(shape, key -> new int[1])[0] += count;
+        }
+        if (nanos >= slowThresholdNanos) {
+            slowQuery(shape, parameterTypes, count, nanos);
+        } else if (logSampleRate > 0 && log.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < logSampleRate) {
+            log.debug("Sampled statement ({} us, {} params): {}", nanos / 1_000, parameterTypes.length, shape);
+        }
+    }
+
+    /**
+     * @return the slow statements still in the ring buffer, slowest first
+     */
+    public synchronized List<SlowQuery> getSlowQueries() {
+        List<SlowQuery> result = new ArrayList<>();
+        for (SlowQuery query : slowQueries) {
+            if (query != null) {
+                result.add(query);
+            }
+        }
+        result.sort(Comparator.comparingDouble(SlowQuery::durationMillis).reversed());
+        return result;
+    }
+
+    /**
+     * @return N+1 findings, most frequent first
+     */
+    public synchronized List<NPlusOneFinding> getNPlusOneFindings() {
+        List<NPlusOneFinding> result = new ArrayList<>(nPlusOneFindings.values());
+        result.sort(Comparator.comparingLong(NPlusOneFinding::occurrences).reversed());
+        return result;
+    }
+
+    public long getStatementCount() {
+        return statements.get();
+    }
+
+    public synchronized long getSlowQueryCount() {
+        return slowQueryCount;
+    }
+
+    public Duration getSlowThreshold() {
+        return slowThreshold;
+    }
+
+    public int getNPlusOneThreshold() {
+        return nPlusOneThreshold;
+    }
+
+    public synchronized void reset() {
+        Arrays.fill(slowQueries, null);
+        slowQueryCount = 0;
+        nPlusOneFindings.clear();
+        lastLogged.invalidateAll();
+    }
+
+    private void slowQuery(String shape, String[] parameterTypes, int count, long nanos) {
+        slowCounter.increment();
+        List<String> types = Arrays.stream(parameterTypes).map(type -> type == null ? "unset" : type).toList();
+        SlowQuery query = new SlowQuery(shape, types, count, nanos / 1_000_000.0, Instant.now(),
+                Thread.currentThread().getName());
+        synchronized (this) {
+            slowQueries[(int) (slowQueryCount++ % slowQueries.length)] = query;
+        }
+        if (shouldLog("slow:" + shape)) {
+            log.warn("Slow statement ({} ms, batch of {}, params {}): {}",
+                    nanos / 1_000_000, count, types, shape);
+        }
+    }
+
+    private void nPlusOneDetected(String endpoint, String shape, int repetitions) {
+        nPlusOneCounter.increment();
+        String key = endpoint + '\n' + shape;
+        synchronized (this) {
+            NPlusOneFinding previous = nPlusOneFindings.get(key);
+            if (previous == null && nPlusOneFindings.size() >= maxFindings) {
+                return;
+            }
+            nPlusOneFindings.put(key, previous == null
+                    ? new NPlusOneFinding(endpoint, shape, 1, repetitions, Instant.now())
+                    : new NPlusOneFinding(endpoint, shape, previous.occurrences() + 1,
+                    Math.max(previous.maxRepetitions(), repetitions), Instant.now()));
+        }
+        if (shouldLog("n+1:" + key)) {
+            log.warn("Possible N+1 in {}: statement ran {} times in one request: {}", endpoint, repetitions, shape);
+        }
+    }
+
+    private boolean shouldLog(String key) {
+        long now = System.nanoTime();
+        Long previous = lastLogged.getIfPresent(key);
+        if (previous != null && now - previous < logIntervalNanos) {
+            return false;
+        }
+        lastLogged.put(key, now);
+        return true;
+    }
+
+    private String normalize(String sql) {
+        if (sql == null) {
+            return "<unknown>";
+        }
+        return normalizedSql.get(sql, raw -> {
+            // gom khoang trang va danh sach IN (?, ?, ...) de cac cau lenh cung dang duoc dem chung
+            String shape = IN_LIST.matcher(WHITESPACE.matcher(raw.trim()).replaceAll(" ")).replaceAll("(?...)");
+            return shape.length() > MAX_SQL_LENGTH ? shape.substring(0, MAX_SQL_LENGTH) + "..." : shape;
+        });
+    }
+
+    /**
+     * A statement slower than the threshold. {@code parameterTypes} are the bound value types by index.
+     */
+    public record SlowQuery(String sql, List<String> parameterTypes, int batchSize, double durationMillis,
+                            Instant executedAt, String thread) {
+    }
+
+    /**
+     * One SQL shape repeated within requests to {@code endpoint}; {@code occurrences} counts affected requests.
+     */
+    public record NPlusOneFinding(String endpoint, String sql, long occurrences, int maxRepetitions,
+                                  Instant lastSeen) {
+    }
+}
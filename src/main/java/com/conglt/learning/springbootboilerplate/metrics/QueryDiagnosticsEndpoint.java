@@ -0,0 +1,39 @@
+package com.conglt.learning.springbootboilerplate.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * {@code /actuator/querydiagnostics}: slow statements and N+1 findings since startup (or the last reset).
+ * {@code DELETE} clears both.
+ */
+@Endpoint(id = "querydiagnostics")
+public class QueryDiagnosticsEndpoint {
+
+    private final QueryDiagnostics diagnostics;
+
+    public QueryDiagnosticsEndpoint(QueryDiagnostics diagnostics) {
+        this.diagnostics = diagnostics;
+    }
+
+    @ReadOperation
+    public Report report() {
+        return new Report(diagnostics.getStatementCount(), diagnostics.getSlowThreshold(),
+                diagnostics.getSlowQueryCount(), diagnostics.getNPlusOneThreshold(),
+                diagnostics.getSlowQueries(), diagnostics.getNPlusOneFindings());
+    }
+
+    @DeleteOperation
+    public void reset() {
+        diagnostics.reset();
+    }
+
+    public record Report(long statementsExecuted, Duration slowThreshold, long slowStatements,
+                         int nPlusOneThreshold, List<QueryDiagnostics.SlowQuery> slowQueries,
+                         List<QueryDiagnostics.NPlusOneFinding> nPlusOne) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.conglt.learning.springbootboilerplate.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Scopes {@link QueryDiagnostics}' statement counting to one HTTP request so repeated statements can be flagged.
+ */
+public class QueryDiagnosticsFilter extends OncePerRequestFilter {
+
+    private final QueryDiagnostics diagnostics;
+
+    public QueryDiagnosticsFilter(QueryDiagnostics diagnostics) {
+        this.diagnostics = diagnostics;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        diagnostics.requestStarted();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            diagnostics.requestFinished(request.getMethod() + " " + (pattern != null ? pattern : "<unmapped>"));
+        }
+    }
+}
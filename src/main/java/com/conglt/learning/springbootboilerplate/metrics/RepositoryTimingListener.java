@@ -0,0 +1,50 @@
+package com.conglt.learning.springbootboilerplate.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records every Spring Data repository call in a {@code repository.invocations} timer
+ * (tags: repository, method, state) and adds its duration to the current {@link RequestTimings}.
+ * Timers are cached per method so the hot path is a map lookup and a record.
+ */
+public class RepositoryTimingListener implements RepositoryMethodInvocationListener {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<Method, Timer[]> timers = new ConcurrentHashMap<>();
+
+    public RepositoryTimingListener(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void afterInvocation(RepositoryMethodInvocation invocation) {
+        long nanos = invocation.getDuration(TimeUnit.NANOSECONDS);
+        RequestTimings.addRepository(nanos);
+
+        RepositoryMethodInvocationResult.State state = invocation.getResult() != null
+                ? invocation.getResult().getState()
+                : RepositoryMethodInvocationResult.State.SUCCESS;
+        Timer[] byState = timers.computeIfAbsent(invocation.getMethod(),
+                method -> new Timer[RepositoryMethodInvocationResult.State.values().length]);
+        Timer timer = byState[state.ordinal()];
+        if (timer == null) {
+            // tao timer lan dau; chay dua chi dan den register hai lan, registry tra ve cung mot meter
+            timer = Timer.builder("repository.invocations")
+                    .description("Spring Data repository method execution time")
+                    .tags("repository", invocation.getRepositoryInterface().getSimpleName(),
+                            "method", invocation.getMethod().getName(),
+                            "state", state.name())
+                    .register(meterRegistry.getObject());
+            byState[state.ordinal()] = timer;
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
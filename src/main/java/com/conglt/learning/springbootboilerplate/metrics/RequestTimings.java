@@ -0,0 +1,177 @@
+package com.conglt.learning.springbootboilerplate.metrics;
+
+/**
+ * Time breakdown of the request being served on the current thread, rendered as a {@code Server-Timing} header.
+ * Started and cleared by {@link ServerTimingFilter}; everything else only adds to it through the static
+ * methods, which do nothing when no request is being timed (background jobs, async dispatches).
+ * Plain fields, no synchronisation: an instance is only touched by the thread that serves the request.
+ */
+public final class RequestTimings {
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+
+    private long jdbcNanos;
+    private long jdbcStartNanos;
+    private int queries;
+    private int entitiesLoaded;
+    private long repositoryNanos;
+    private long authNanos;
+    private long handlerStartNanos;
+    private long serializationStartNanos;
+    private long handlerNanos = -1;
+    private long serializationNanos = -1;
+
+    private RequestTimings() {
+    }
+
+    static RequestTimings start() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    public static void jdbcStarted() {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.jdbcStartNanos = System.nanoTime();
+        }
+    }
+
+    public static void jdbcFinished(int statements) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null && timings.jdbcStartNanos != 0) {
+            timings.jdbcNanos += System.nanoTime() - timings.jdbcStartNanos;
+            timings.jdbcStartNanos = 0;
+            timings.queries += statements;
+        }
+    }
+
+    public static void entityLoaded() {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.entitiesLoaded++;
+        }
+    }
+
+    public static void addRepository(long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.repositoryNanos += nanos;
+        }
+    }
+
+    public static void addAuthentication(long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.authNanos += nanos;
+        }
+    }
+
+    static void handlerStarted() {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.handlerStartNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Called right before the response body is handed to the message converter.
+     */
+    static void serializationStarted() {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null && timings.serializationStartNanos == 0) {
+            timings.serializationStartNanos = System.nanoTime();
+            if (timings.handlerStartNanos != 0) {
+                timings.handlerNanos = timings.serializationStartNanos - timings.handlerStartNanos;
+            }
+        }
+    }
+
+    /**
+     * Called once the handler has returned (and a {@code @ResponseBody} has been written).
+     */
+    void handlerFinished() {
+        long now = System.nanoTime();
+        if (serializationStartNanos != 0) {
+            serializationNanos = now - serializationStartNanos;
+        } else if (handlerStartNanos != 0) {
+            handlerNanos = now - handlerStartNanos;
+        }
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    long jdbcNanos() {
+        return jdbcNanos;
+    }
+
+    int queries() {
+        return queries;
+    }
+
+    int entitiesLoaded() {
+        return entitiesLoaded;
+    }
+
+    long handlerNanos() {
+        return handlerNanos;
+    }
+
+    long serializationNanos() {
+        return serializationNanos;
+    }
+
+    /**
+     * Render the breakdown, e.g. {@code app;dur=12.4, handler;dur=9.8, db;dur=6.1;desc="3 queries, 50 entities", ...}.
+     * Segments that did not happen are left out; a serialization still running counts up to now.
+     */
+    String toHeaderValue() {
+        long now = System.nanoTime();
+        StringBuilder header = new StringBuilder(160);
+        append(header, "app", now - startNanos);
+        if (handlerNanos >= 0) {
+            append(header, "handler", handlerNanos);
+        } else if (handlerStartNanos != 0) {
+            append(header, "handler", now - handlerStartNanos);
+        }
+        if (queries > 0 || entitiesLoaded > 0) {
+            append(header, "db", jdbcNanos);
+            header.append(";desc=\"").append(queries).append(" queries, ")
+                    .append(entitiesLoaded).append(" entities\"");
+        }
+        if (repositoryNanos > 0) {
+            // thoi gian trong repository ngoai JDBC: hydrate entity, flush, dirty checking, cho connection
+            append(header, "orm", Math.max(0, repositoryNanos - jdbcNanos));
+        }
+        if (authNanos > 0) {
+            append(header, "auth", authNanos);
+        }
+        if (serializationNanos >= 0) {
+            append(header, "ser", serializationNanos);
+        } else if (serializationStartNanos != 0) {
+            append(header, "ser", now - serializationStartNanos);
+        }
+        return header.toString();
+    }
+
+    private static void append(StringBuilder header, String name, long nanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        long hundredths = nanos / 10_000;
+        long fraction = hundredths % 100;
+        header.append(name).append(";dur=").append(hundredths / 100).append(fraction < 10 ? ".0" : ".").append(fraction);
+    }
+}
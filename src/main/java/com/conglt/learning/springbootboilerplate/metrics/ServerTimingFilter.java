@@ -0,0 +1,112 @@
+package com.conglt.learning.springbootboilerplate.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times each request through {@link RequestTimings}, records per-endpoint JDBC time, query and entity counts,
+ * and (optionally) sends the breakdown to the client as a {@code Server-Timing} header.
+ * The header is added just before the response commits, so large bodies report the serialization done so far.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    static final String HEADER_SERVER_TIMING = "Server-Timing";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean sendHeader;
+    private final Map<String, EndpointMeters> meters = new ConcurrentHashMap<>();
+
+    public ServerTimingFilter(MeterRegistry meterRegistry, boolean sendHeader) {
+        this.meterRegistry = meterRegistry;
+        this.sendHeader = sendHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.start();
+        HttpServletResponse timedResponse = sendHeader ? new ServerTimingResponseWrapper(response, timings) : response;
+        try {
+            filterChain.doFilter(request, timedResponse);
+        } finally {
+            if (timedResponse instanceof ServerTimingResponseWrapper wrapper) {
+                wrapper.writeHeader();
+            }
+            RequestTimings.clear();
+            record(request, timings);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestTimings timings) {
+        // chi ghi cho request khop voi mot endpoint, tranh tag uri khong gioi han (404, quet duong dan)
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            return;
+        }
+        EndpointMeters endpoint = meters.computeIfAbsent(request.getMethod() + " " + pattern,
+                key -> new EndpointMeters(meterRegistry, request.getMethod(), pattern.toString()));
+        endpoint.jdbc.record(timings.jdbcNanos(), TimeUnit.NANOSECONDS);
+        endpoint.queries.record(timings.queries());
+        endpoint.entities.record(timings.entitiesLoaded());
+    }
+
+    private static final class EndpointMeters {
+        private final Timer jdbc;
+        private final DistributionSummary queries;
+        private final DistributionSummary entities;
+
+        EndpointMeters(MeterRegistry registry, String method, String uri) {
+            this.jdbc = Timer.builder("http.server.requests.jdbc")
+                    .description("JDBC execution time per request")
+                    .tags("method", method, "uri", uri)
+                    .register(registry);
+            this.queries = DistributionSummary.builder("http.server.requests.queries")
+                    .description("SQL statements executed per request")
+                    .tags("method", method, "uri", uri)
+                    .register(registry);
+            this.entities = DistributionSummary.builder("http.server.requests.entities")
+                    .description("Entities loaded by Hibernate per request")
+                    .tags("method", method, "uri", uri)
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Adds the header once, right before the first byte (or an error/redirect) commits the response.
+     */
+    private static final class ServerTimingResponseWrapper extends OnCommittedResponseWrapper {
+
+        private final RequestTimings timings;
+        private boolean written;
+
+        ServerTimingResponseWrapper(HttpServletResponse response, RequestTimings timings) {
+            super(response);
+            this.timings = timings;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeader();
+        }
+
+        void writeHeader() {
+            if (!written && !isCommitted()) {
+                written = true;
+                setHeader(HEADER_SERVER_TIMING, timings.toHeaderValue());
+            }
+        }
+    }
+}
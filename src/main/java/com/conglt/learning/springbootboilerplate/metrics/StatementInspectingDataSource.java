@@ -0,0 +1,159 @@
+package com.conglt.learning.springbootboilerplate.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * DataSource that reports every executed statement (SQL, bind-parameter types, duration) to {@link QueryDiagnostics}.
+ * Covers Hibernate and JdbcTemplate alike. Only parameter types are kept, never values; the duration is
+ * the {@code execute*} call, not the time spent reading the result set afterwards.
+ */
+public class StatementInspectingDataSource extends DelegatingDataSource {
+
+    private static final int MAX_TRACKED_PARAMETERS = 64;
+
+    private final QueryDiagnostics diagnostics;
+
+    public StatementInspectingDataSource(DataSource targetDataSource, QueryDiagnostics diagnostics) {
+        super(targetDataSource);
+        this.diagnostics = diagnostics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return inspect(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return inspect(super.getConnection(username, password));
+    }
+
+    private Connection inspect(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection));
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    /**
+     * Hands out inspected statements; everything else goes straight to the pooled connection.
+     */
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("equals".equals(name) && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(name) && method.getParameterCount() == 0) {
+                return System.identityHashCode(proxy);
+            }
+            if ("unwrap".equals(name) && args != null && ((Class<?>) args[0]).isInstance(proxy)) {
+                return proxy;
+            }
+            Object result = invokeTarget(target, method, args);
+            return switch (name) {
+                case "prepareStatement" -> wrap(PreparedStatement.class, (Statement) result, (String) args[0]);
+                case "prepareCall" -> wrap(CallableStatement.class, (Statement) result, (String) args[0]);
+                case "createStatement" -> wrap(Statement.class, (Statement) result, null);
+                default -> result;
+            };
+        }
+
+        private Object wrap(Class<? extends Statement> type, Statement statement, String sql) {
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                    new StatementHandler(statement, sql));
+        }
+    }
+
+    /**
+     * Tracks bind-parameter types and times the {@code execute*} calls of one statement.
+     */
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String preparedSql;
+        private String[] parameterTypes = new String[0];
+        private int batchSize;
+
+        private StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                String sql = preparedSql != null ? preparedSql : args != null ? (String) args[0] : null;
+                int statements = "executeBatch".equals(name) || "executeLargeBatch".equals(name) ? batchSize : 1;
+                long start = System.nanoTime();
+                try {
+                    return invokeTarget(target, method, args);
+                } finally {
+                    diagnostics.statementExecuted(sql, parameterTypes, Math.max(1, statements),
+                            System.nanoTime() - start);
+                    if (statements != 1) {
+                        batchSize = 0;
+                    }
+                }
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                recordParameter(index, name, args[1]);
+            } else if ("addBatch".equals(name)) {
+                batchSize++;
+            } else if ("clearBatch".equals(name)) {
+                batchSize = 0;
+            } else if ("clearParameters".equals(name)) {
+                parameterTypes = new String[0];
+            } else if ("equals".equals(name) && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            } else if ("hashCode".equals(name) && method.getParameterCount() == 0) {
+                return System.identityHashCode(proxy);
+            } else if ("unwrap".equals(name) && args != null && ((Class<?>) args[0]).isInstance(proxy)) {
+                return proxy;
+            }
+            return invokeTarget(target, method, args);
+        }
+
+        private void recordParameter(int index, String setter, Object value) {
+            if (index < 1 || index > MAX_TRACKED_PARAMETERS) {
+                return;
+            }
+            if (index > parameterTypes.length) {
+                parameterTypes = Arrays.copyOf(parameterTypes, index);
+            }
+            // chi giu kieu cua gia tri, khong bao gio giu gia tri
+            parameterTypes[index - 1] = "setNull".equals(setter) || value == null
+                    ? "null"
+                    : value.getClass().getSimpleName();
+        }
+    }
+}
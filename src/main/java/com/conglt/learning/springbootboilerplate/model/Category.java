@@ -1,5 +1,6 @@
 package com.conglt.learning.springbootboilerplate.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -16,7 +17,7 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Category {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -30,6 +31,21 @@ public class Category {
 
     private String icon;
 
+    //Danh muc cha (null = danh muc goc)
+    @Column(name = "parent_id")
+    private Long parentId;
+
+    //Duong dan id cac danh muc cha, vd "/1/5/"; do service tinh, client khong gui len
+    @Builder.Default
+    @Column(nullable = false, length = 1000)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String path = "/";
+
+    @Builder.Default
+    @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Integer depth = 0;
+
     //Timestamp
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
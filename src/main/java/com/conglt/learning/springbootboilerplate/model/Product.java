@@ -39,6 +39,7 @@ public class Product {
     private Category category;
 
     @CreationTimestamp
+    @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @UpdateTimestamp
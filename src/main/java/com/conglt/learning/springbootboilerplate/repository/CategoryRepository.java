@@ -2,8 +2,39 @@ package com.conglt.learning.springbootboilerplate.repository;
 
 import com.conglt.learning.springbootboilerplate.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Set;
+
 @Repository
 public interface CategoryRepository extends JpaRepository<Category,Long> {
+
+    /**
+     * Load every category id, used to validate foreign keys of bulk imports in one query.
+     *
+     * @return all category ids
+     */
+    @Query("select c.id from Category c")
+    Set<Long> findAllIds();
+
+    boolean existsByParentId(Long parentId);
+
+    /**
+     * Re-root the descendants of a moved category: every path in {@code [fromPath, toPath)} has its
+     * {@code oldPrefix} replaced by {@code newPrefix} and its depth shifted by {@code depthDelta}.
+     *
+     * @return the number of descendants updated
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Category c set c.path = concat(:newPrefix, substring(c.path, :oldPrefixLength + 1)), "
+            + "c.depth = c.depth + :depthDelta, c.updatedAt = local datetime "
+            + "where c.path >= :fromPath and c.path < :toPath")
+    int moveDescendants(@Param("fromPath") String fromPath,
+                        @Param("toPath") String toPath,
+                        @Param("oldPrefixLength") int oldPrefixLength,
+                        @Param("newPrefix") String newPrefix,
+                        @Param("depthDelta") int depthDelta);
 }
@@ -0,0 +1,126 @@
+package com.conglt.learning.springbootboilerplate.repository;
+
+import com.conglt.learning.springbootboilerplate.dto.ProductListCriteria;
+import com.conglt.learning.springbootboilerplate.dto.ProductSort;
+import com.conglt.learning.springbootboilerplate.dto.ProductView;
+import com.conglt.learning.springbootboilerplate.util.CursorUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Filtered, sorted keyset pages of the product list.
+ * Every sort order seeks on a row value such as {@code (price, id) > (:lastValue, :lastId)}, which PostgreSQL
+ * answers from the matching composite index ({@code (price, id)}, {@code (category_id, price, id)},
+ * {@code (created_at, id)}, ...) without an offset, so page 10,000 costs the same as page 1. The sort columns
+ * are NOT NULL, since a NULL in the row value would make the comparison unknown and skip rows.
+ * Name filtering uses {@code ILIKE} on the trigram index. Plain SQL because the filters are optional.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductListRepository {
+
+    private static final String SELECT_SQL = """
+            select p.id, p.name, p.description, p.price, p.stock, p.image_url,
+                   c.id as category_id, c.name as category_name, p.created_at, p.updated_at
+            from products p left join categories c on c.id = p.category_id
+            where true
+            """;
+
+    private static final RowMapper<ProductView> VIEW_MAPPER = (rs, rowNum) -> new ProductView(
+            rs.getLong("id"),
+            rs.getString("name"),
+            rs.getString("description"),
+            rs.getBigDecimal("price"),
+            rs.getInt("stock"),
+            rs.getString("image_url"),
+            rs.getObject("category_id", Long.class),
+            rs.getString("category_name"),
+            toLocalDateTime(rs.getTimestamp("created_at")),
+            toLocalDateTime(rs.getTimestamp("updated_at")));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Load one page of the product list.
+     *
+     * @param criteria filters and sort order
+     * @param after    the position of the last item of the previous page, or null for the first page
+     * @param limit    the maximum number of rows to return
+     * @return the product views in the requested order
+     */
+    public List<ProductView> findPage(ProductListCriteria criteria, CursorUtils.SortedKey after, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        MapSqlParameterSource params = new MapSqlParameterSource().addValue("limit", limit);
+
+        if (criteria.getCategoryId() != null) {
+            sql.append("and p.category_id = :categoryId\n");
+            params.addValue("categoryId", criteria.getCategoryId());
+        }
+        if (criteria.getName() != null && !criteria.getName().isBlank()) {
+            sql.append("and p.name ilike :namePattern\n");
+            params.addValue("namePattern", "%" + escapeLike(criteria.getName().trim()) + "%");
+        }
+
+        ProductSort sort = criteria.getSort() != null ? criteria.getSort() : ProductSort.ID_ASC;
+        if (after != null) {
+            params.addValue("lastId", after.id());
+            switch (sort) {
+                case ID_ASC -> sql.append("and p.id > :lastId\n");
+                case ID_DESC -> sql.append("and p.id < :lastId\n");
+                case PRICE_ASC -> sql.append("and (p.price, p.id) > (:lastValue, :lastId)\n");
+                case PRICE_DESC -> sql.append("and (p.price, p.id) < (:lastValue, :lastId)\n");
+                case NEWEST -> sql.append("and (p.created_at, p.id) < (:lastValue, :lastId)\n");
+            }
+            try {
+                switch (sort) {
+                    case PRICE_ASC, PRICE_DESC -> params.addValue("lastValue", new BigDecimal(after.value()));
+                    case NEWEST -> params.addValue("lastValue", Timestamp.valueOf(LocalDateTime.parse(after.value())));
+                    default -> {
+                    }
+                }
+            } catch (NullPointerException | NumberFormatException | DateTimeParseException e) {
+                //cursor cua thu tu khac hoac bi sua tay
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+        sql.append(switch (sort) {
+            case ID_ASC -> "order by p.id asc\n";
+            case ID_DESC -> "order by p.id desc\n";
+            case PRICE_ASC -> "order by p.price asc, p.id asc\n";
+            case PRICE_DESC -> "order by p.price desc, p.id desc\n";
+            case NEWEST -> "order by p.created_at desc, p.id desc\n";
+        });
+        sql.append("limit :limit");
+
+        return jdbcTemplate.query(sql.toString(), params, VIEW_MAPPER);
+    }
+
+    /**
+     * The cursor value of a product for a sort order (null when the order is by id only).
+     */
+    public static String sortValue(ProductView product, ProductSort sort) {
+        return switch (sort) {
+            case PRICE_ASC, PRICE_DESC -> product.getPrice().toPlainString();
+            case NEWEST -> product.getCreatedAt().toString(); //created_at NOT NULL tu V1.10
+            default -> null;
+        };
+    }
+
+    //ky tu dac biet cua LIKE trong chuoi nguoi dung nhap
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -1,10 +1,120 @@
 package com.conglt.learning.springbootboilerplate.repository;
 
+import com.conglt.learning.springbootboilerplate.dto.ProductView;
 import com.conglt.learning.springbootboilerplate.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    /**
+     * Flat projection shared by every read query: product columns plus category id and name,
+     * loaded through a single left join instead of one extra select per category.
+     */
+    String VIEW_SELECT = "select new com.conglt.learning.springbootboilerplate.dto.ProductView("
+            + "p.id, p.name, p.description, p.price, p.stock, p.imageUrl, c.id, c.name, p.createdAt, p.updatedAt) "
+            + "from Product p left join p.category c ";
+
     List<Product> findByCategoryId(Long categoryId);
+
+    /**
+     * Find a single product as a read model.
+     *
+     * @param id the product id
+     * @return Optional containing the product view if found
+     */
+    @Query(VIEW_SELECT + "where p.id = :id")
+    Optional<ProductView> findViewById(@Param("id") Long id);
+
+    /**
+     * All products as read models, in id order.
+     *
+     * @return every product view
+     */
+    @Query(VIEW_SELECT + "order by p.id asc")
+    List<ProductView> findAllViews();
+
+    /**
+     * Products of one category as read models, in id order.
+     *
+     * @param categoryId the category id
+     * @return the product views of the category
+     */
+    @Query(VIEW_SELECT + "where c.id = :categoryId order by p.id asc")
+    List<ProductView> findViewsByCategoryId(@Param("categoryId") Long categoryId);
+
+    /**
+     * Keyset page of the products of a category and all its descendants, in id order.
+     * Descendants are the categories whose path lies in {@code [fromPath, toPath)}, a range scan on
+     * {@code idx_categories_path}; products are then found through {@code idx_products_category_id_id}.
+     *
+     * @param categoryId the root category of the subtree
+     * @param fromPath   the path of the root's children, e.g. {@code /1/5/}
+     * @param toPath     the first path after the subtree, e.g. {@code /1/50}
+     * @param afterId    the last id of the previous page (0 for the first page)
+     * @param limit      the maximum number of rows to return
+     * @return the next product views in id order
+     */
+    @Query(VIEW_SELECT + "where (c.id = :categoryId or (c.path >= :fromPath and c.path < :toPath)) "
+            + "and p.id > :afterId order by p.id asc")
+    List<ProductView> findSubtreePageAfter(@Param("categoryId") Long categoryId,
+                                           @Param("fromPath") String fromPath,
+                                           @Param("toPath") String toPath,
+                                           @Param("afterId") Long afterId,
+                                           Limit limit);
+
+    /**
+     * Keyset page: products with an id greater than the given one, in id order.
+     *
+     * @param afterId the last id of the previous page (0 for the first page)
+     * @param limit   the maximum number of rows to return
+     * @return the next product views in id order
+     */
+    @Query(VIEW_SELECT + "where p.id > :afterId order by p.id asc")
+    List<ProductView> findPageAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Stream all products in id order through a server-side cursor.
+     * Must be consumed inside a transaction so PostgreSQL honours the fetch size.
+     *
+     * @return a stream that must be closed by the caller
+     */
+    @Query(VIEW_SELECT + "order by p.id asc")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<ProductView> streamAll();
+
+    /**
+     * Current stock of a product, without loading the entity.
+     *
+     * @param id the product id
+     * @return Optional containing the stock if the product exists
+     */
+    @Query("select p.stock from Product p where p.id = :id")
+    Optional<Integer> findStockById(@Param("id") Long id);
+
+    /**
+     * Atomically take units out of stock, only if enough are left.
+     * The condition is checked by the same statement that writes, so concurrent callers can never
+     * drive the stock below zero.
+     *
+     * @param id       the product id
+     * @param quantity units to remove
+     * @return 1 if the stock was decremented, 0 if the product is missing or has too little stock
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Product p set p.stock = p.stock - :quantity, p.updatedAt = local datetime "
+            + "where p.id = :id and p.stock >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity);
 }
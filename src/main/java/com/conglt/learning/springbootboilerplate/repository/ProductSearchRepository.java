@@ -0,0 +1,110 @@
+package com.conglt.learning.springbootboilerplate.repository;
+
+import com.conglt.learning.springbootboilerplate.dto.ProductSearchCriteria;
+import com.conglt.learning.springbootboilerplate.dto.ProductView;
+import com.conglt.learning.springbootboilerplate.util.CursorUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Full-text product search on PostgreSQL.
+ * Matches either the generated {@code search_vector} column (prefix tsquery, GIN index) or the
+ * product name by trigram similarity ({@code %}, GIN trigram index), so both indexes can be combined
+ * with a bitmap OR. Results are ordered by relevance and paginated on (rank, id).
+ * Written with plain SQL because JPQL has no tsvector or trigram operators.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductSearchRepository {
+
+    private static final String SEARCH_SQL_HEAD = """
+            select p.id, p.name, p.description, p.price, p.stock, p.image_url,
+                   c.id as category_id, c.name as category_name, p.created_at, p.updated_at, p.rank
+            from (select p.*,
+                         cast(ts_rank_cd(p.search_vector, to_tsquery('simple', :tsquery))
+                              + similarity(p.name, :term) as real) as rank
+                  from products p
+                  where (p.search_vector @@ to_tsquery('simple', :tsquery) or p.name % :term)
+            """;
+
+    private static final String SEARCH_SQL_TAIL = """
+            order by p.rank desc, p.id asc
+            limit :limit
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * A matching product with its relevance.
+     */
+    public record Hit(ProductView product, float rank) {
+    }
+
+    private static final RowMapper<Hit> HIT_MAPPER = (rs, rowNum) -> {
+        Long categoryId = rs.getObject("category_id", Long.class);
+        ProductView view = new ProductView(
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getString("description"),
+                rs.getBigDecimal("price"),
+                rs.getInt("stock"),
+                rs.getString("image_url"),
+                categoryId,
+                rs.getString("category_name"),
+                toLocalDateTime(rs.getTimestamp("created_at")),
+                toLocalDateTime(rs.getTimestamp("updated_at")));
+        return new Hit(view, rs.getFloat("rank"));
+    };
+
+    /**
+     * Search products, best matches first.
+     *
+     * @param tsquery prefix tsquery built from the search terms, e.g. {@code lap:* & pro:*}
+     * @param criteria the original search text and optional filters
+     * @param after    the position of the last hit of the previous page, or null for the first page
+     * @param limit    the maximum number of rows to return
+     * @return the hits in (rank desc, id asc) order
+     */
+    public List<Hit> search(String tsquery, ProductSearchCriteria criteria, CursorUtils.RankedKey after, int limit) {
+        StringBuilder sql = new StringBuilder(SEARCH_SQL_HEAD);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("tsquery", tsquery)
+                .addValue("term", criteria.getQuery().trim())
+                .addValue("limit", limit);
+
+        //loc ngay trong subquery de GIN index va bo loc chay cung nhau
+        if (criteria.getMinPrice() != null) {
+            sql.append("    and p.price >= :minPrice\n");
+            params.addValue("minPrice", criteria.getMinPrice());
+        }
+        if (criteria.getMaxPrice() != null) {
+            sql.append("    and p.price <= :maxPrice\n");
+            params.addValue("maxPrice", criteria.getMaxPrice());
+        }
+        if (criteria.getCategoryId() != null) {
+            sql.append("    and p.category_id = :categoryId\n");
+            params.addValue("categoryId", criteria.getCategoryId());
+        }
+        sql.append(") p left join categories c on c.id = p.category_id\n");
+
+        if (after != null) {
+            sql.append("where p.rank < :lastRank or (p.rank = :lastRank and p.id > :lastId)\n");
+            params.addValue("lastRank", after.rank());
+            params.addValue("lastId", after.id());
+        }
+        sql.append(SEARCH_SQL_TAIL);
+
+        return jdbcTemplate.query(sql.toString(), params, HIT_MAPPER);
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,39 @@
+package com.conglt.learning.springbootboilerplate.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-table change counters maintained by statement-level triggers (V1.9).
+ * A table's version is the sum of its counter stripes; it only grows, and a write becomes visible in it
+ * when its transaction commits. Read the version before the data it describes, so a tag never claims
+ * newer data than the body it is sent with.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TableChangeCounterRepository {
+
+    public static final String PRODUCTS = "products";
+    public static final String CATEGORIES = "categories";
+
+    private static final String VERSION_SQL = """
+            select coalesce(sum(version), 0)
+            from table_change_counters
+            where table_name in (:tables)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * @param tables the tables the result depends on
+     * @return a number that changes whenever any of the tables changes
+     */
+    public long currentVersion(String... tables) {
+        Long version = jdbcTemplate.queryForObject(VERSION_SQL, Map.of("tables", List.of(tables)), Long.class);
+        return version != null ? version : 0L;
+    }
+}
@@ -1,10 +1,15 @@
 package com.conglt.learning.springbootboilerplate.repository;
 
 import com.conglt.learning.springbootboilerplate.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for User entity.
@@ -43,5 +48,23 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return true if user exists, false otherwise
      */
     boolean existsByEmail(String email);
-}
 
+    /**
+     * Stream the username and email of every user, without loading entities.
+     * Must be consumed inside a transaction so PostgreSQL honours the fetch size.
+     *
+     * @return a stream that must be closed by the caller
+     */
+    @Query("select u.username as username, u.email as email from User u")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<UserIdentity> streamAllIdentities();
+
+    /**
+     * Username and email of a user.
+     */
+    interface UserIdentity {
+        String getUsername();
+
+        String getEmail();
+    }
+}
@@ -0,0 +1,21 @@
+package com.conglt.learning.springbootboilerplate.security.dto;
+
+import com.conglt.learning.springbootboilerplate.model.UserRole;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for changing the role of a user.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UpdateUserRoleRequest {
+
+    @NotNull(message = "Role is required")
+    private UserRole role;
+}
@@ -0,0 +1,20 @@
+package com.conglt.learning.springbootboilerplate.security.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for enabling or disabling a user.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UpdateUserStatusRequest {
+
+    @NotNull(message = "Active flag is required")
+    private Boolean active;
+}
@@ -0,0 +1,27 @@
+package com.conglt.learning.springbootboilerplate.security.dto;
+
+import com.conglt.learning.springbootboilerplate.model.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a user account as seen by administrators.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserAccountResponse {
+
+    private Long id;
+
+    private String username;
+
+    private String email;
+
+    private UserRole role;
+
+    private Boolean isActive;
+}
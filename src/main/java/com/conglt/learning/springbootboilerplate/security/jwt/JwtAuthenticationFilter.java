@@ -1,29 +1,58 @@
 package com.conglt.learning.springbootboilerplate.security.jwt;
 
-import lombok.RequiredArgsConstructor;
+import com.conglt.learning.springbootboilerplate.metrics.RequestTimings;
+import com.conglt.learning.springbootboilerplate.security.service.UserPrincipalCache;
+import com.conglt.learning.springbootboilerplate.security.service.UserSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
- * JWT Authentication Filter for validating JWT tokens in the Authorization header.
+ * JWT Authentication Filter for validating JWT tokens in the Authorization header, or for the web UI
+ * in the {@link #WEB_TOKEN_COOKIE} cookie (HttpOnly, SameSite=Strict, only sent to {@link #WEB_PATH}).
+ * The user's role and status come from {@link UserPrincipalCache}, not from the database on every request.
+ * Token resolution (cache lookup or signature check) is timed in {@code security.jwt.verification}.
  */
 @Slf4j
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final String BEARER_PREFIX = "Bearer ";
     private static final String HEADER_AUTHORIZATION = "Authorization";
 
-    private final JwtTokenProvider jwtTokenProvider;
+    /** Cookie holding the JWT of a web UI login. */
+    public static final String WEB_TOKEN_COOKIE = "web_token";
+
+    /** Path of the Thymeleaf web UI, the only place the token cookie is accepted. */
+    public static final String WEB_PATH = "/products";
+
+    private final JwtTokenCache jwtTokenCache;
+    private final UserPrincipalCache userPrincipalCache;
+    private final Timer verificationTimer;
+
+    public JwtAuthenticationFilter(JwtTokenCache jwtTokenCache, UserPrincipalCache userPrincipalCache,
+                                   MeterRegistry meterRegistry) {
+        this.jwtTokenCache = jwtTokenCache;
+        this.userPrincipalCache = userPrincipalCache;
+        this.verificationTimer = Timer.builder("security.jwt.verification")
+                .description("Time to resolve a bearer token (cached or verified)")
+                .register(meterRegistry);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
@@ -31,15 +60,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = extractTokenFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
-                String username = jwtTokenProvider.getSubjectFromToken(jwt);
+            // Verify once (or reuse a cached verification) and read the subject from the result
+            Optional<JwtPrincipal> principal = StringUtils.hasText(jwt) ? resolve(jwt) : Optional.empty();
 
-                if (StringUtils.hasText(username)) {
-                    // Create authentication token
-                    UsernamePasswordAuthenticationToken authentication =
-                            new UsernamePasswordAuthenticationToken(username, null, null);
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                    log.debug("Set Spring Security authentication for user: {}", username);
+            if (principal.isPresent()) {
+                String username = principal.get().subject();
+                Long userId = principal.get().userId();
+
+                // Tokens without a user id predate role checks and must be renewed by logging in again
+                if (StringUtils.hasText(username) && userId != null) {
+                    UserSnapshot user = userPrincipalCache.get(userId);
+
+                    if (user.active() && username.equals(user.username())) {
+                        // Create authentication token with the user's current role
+                        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                                username, null, List.of(new SimpleGrantedAuthority(user.role().name())));
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                        log.debug("Set Spring Security authentication for user: {}", username);
+                    } else {
+                        log.debug("Ignoring token of inactive or unknown user: {}", username);
+                    }
                 }
             }
         } catch (Exception ex) {
@@ -49,8 +89,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private Optional<JwtPrincipal> resolve(String jwt) {
+        long start = System.nanoTime();
+        try {
+            return jwtTokenCache.resolve(jwt);
+        } finally {
+            long nanos = System.nanoTime() - start;
+            verificationTimer.record(nanos, TimeUnit.NANOSECONDS);
+            RequestTimings.addAuthentication(nanos);
+        }
+    }
+
     /**
-     * Extract JWT token from the Authorization header.
+     * Extract JWT token from the Authorization header, or from the web UI cookie on web UI paths.
      *
      * @param request the HTTP request
      * @return the JWT token or null if not found
@@ -62,6 +113,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return bearerToken.substring(BEARER_PREFIX.length());
         }
 
+        // Cookie chi dung cho web UI (co CSRF), khong cho API vi API tat CSRF
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.equals(WEB_PATH) || path.startsWith(WEB_PATH + "/")) {
+            Cookie cookie = WebUtils.getCookie(request, WEB_TOKEN_COOKIE);
+            if (cookie != null && StringUtils.hasText(cookie.getValue())) {
+                return cookie.getValue();
+            }
+        }
+
         return null;
     }
 }
@@ -0,0 +1,13 @@
+package com.conglt.learning.springbootboilerplate.security.jwt;
+
+import java.time.Instant;
+
+/**
+ * Principal extracted from a JWT whose signature, issuer and expiry have been verified.
+ *
+ * @param subject   the token subject (username)
+ * @param userId    the user id ({@code uid} claim), null for tokens minted before the claim existed
+ * @param expiresAt the token expiry ({@code exp} claim)
+ */
+public record JwtPrincipal(String subject, Long userId, Instant expiresAt) {
+}
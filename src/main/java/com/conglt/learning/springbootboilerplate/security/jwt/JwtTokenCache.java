@@ -0,0 +1,100 @@
+package com.conglt.learning.springbootboilerplate.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Bounded cache of already verified JWTs so repeat requests skip HMAC verification.
+ * Entries are keyed by a SHA-256 hash of the token (the raw bearer token is never retained)
+ * and are evicted at the token's own {@code exp}. Invalid tokens are never cached.
+ */
+@Component
+public class JwtTokenCache {
+
+    private final JwtTokenProvider jwtTokenProvider;
+
+    private final boolean enabled;
+
+    private final Cache<String, JwtPrincipal> cache;
+
+    public JwtTokenCache(JwtTokenProvider jwtTokenProvider,
+                         @Value("${jwt.cache.enabled:true}") boolean enabled,
+                         @Value("${jwt.cache.maximum-size:10000}") long maximumSize) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry())
+                .build();
+    }
+
+    /**
+     * Resolve the principal of a token, verifying it only on a cache miss.
+     *
+     * @param token the raw JWT token
+     * @return Optional containing the principal if the token is valid, empty otherwise
+     */
+    public Optional<JwtPrincipal> resolve(String token) {
+        if (!enabled) {
+            return jwtTokenProvider.verifyToken(token);
+        }
+
+        String key = hash(token);
+        JwtPrincipal cached = cache.getIfPresent(key);
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            return Optional.of(cached);
+        }
+
+        Optional<JwtPrincipal> principal = jwtTokenProvider.verifyToken(token);
+        principal.ifPresent(value -> cache.put(key, value));
+        return principal;
+    }
+
+    /**
+     * Drop every cached verification, e.g. after rotating the signing key.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Expires each entry exactly at the {@code exp} claim of its token.
+     */
+    private static final class TokenExpiry implements Expiry<String, JwtPrincipal> {
+
+        @Override
+        public long expireAfterCreate(String key, JwtPrincipal value, long currentTime) {
+            return Math.max(0L, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtPrincipal value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtPrincipal value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
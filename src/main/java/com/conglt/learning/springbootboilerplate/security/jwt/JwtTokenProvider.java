@@ -1,51 +1,84 @@
 package com.conglt.learning.springbootboilerplate.security.jwt;
 
-import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.stereotype.Component;
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.Date;
+import java.util.Optional;
 
 /**
  * JWT Token Provider for generating and validating JWT tokens.
+ * The HMAC algorithm and the verifier are immutable and thread-safe, so they are built once.
  */
 @Component
-@RequiredArgsConstructor
 public class JwtTokenProvider {
 
-    @Value("${jwt.secretKey}")
-    private String secretKey;
+    /**
+     * Claim carrying the user id, used to look up the current role and status of the user.
+     */
+    public static final String USER_ID_CLAIM = "uid";
+
+    private final String issuer;
 
-    @Value("${jwt.issuer}")
-    private String issuer;
+    private final int expirationMinute;
 
-    @Value("${jwt.expirationMinute}")
-    private int expirationMinute;
+    private final Algorithm algorithm;
+
+    private final JWTVerifier verifier;
+
+    public JwtTokenProvider(@Value("${jwt.secretKey}") String secretKey,
+                            @Value("${jwt.issuer}") String issuer,
+                            @Value("${jwt.expirationMinute}") int expirationMinute) {
+        this.issuer = issuer;
+        this.expirationMinute = expirationMinute;
+        this.algorithm = Algorithm.HMAC256(secretKey);
+        this.verifier = JWT.require(algorithm)
+                .withIssuer(issuer)
+                .build();
+    }
 
     /**
      * Generate JWT token for the given subject (username).
      *
      * @param subject the subject (username) to include in the token
+     * @param userId  the user id, stored in the {@code uid} claim
      * @return the generated JWT token
      */
-    public String generateToken(String subject) {
-        Algorithm algorithm = Algorithm.HMAC256(secretKey);
+    public String generateToken(String subject, Long userId) {
         Instant now = Instant.now();
         Instant expiresAt = now.plus(expirationMinute, ChronoUnit.MINUTES);
 
         return JWT.create()
                 .withSubject(subject)
+                .withClaim(USER_ID_CLAIM, userId)
                 .withIssuer(issuer)
                 .withIssuedAt(now)
                 .withExpiresAt(expiresAt)
                 .sign(algorithm);
     }
 
+    /**
+     * Verify signature, issuer and expiration once and return the decoded principal.
+     *
+     * @param token the JWT token to verify
+     * @return Optional containing the principal if the token is valid, empty otherwise
+     */
+    public Optional<JwtPrincipal> verifyToken(String token) {
+        try {
+            DecodedJWT decodedJWT = verifier.verify(token);
+            Long userId = decodedJWT.getClaim(USER_ID_CLAIM).asLong();
+            return Optional.of(new JwtPrincipal(decodedJWT.getSubject(), userId, decodedJWT.getExpiresAtAsInstant()));
+        } catch (JWTVerificationException e) {
+            return Optional.empty();
+        }
+    }
+
     /**
      * Validate JWT token signature and expiration.
      *
@@ -53,16 +86,7 @@ public class JwtTokenProvider {
      * @return true if token is valid, false otherwise
      */
     public boolean validateToken(String token) {
-        try {
-            Algorithm algorithm = Algorithm.HMAC256(secretKey);
-            JWT.require(algorithm)
-                    .withIssuer(issuer)
-                    .build()
-                    .verify(token);
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            return false;
-        }
+        return verifyToken(token).isPresent();
     }
 
     /**
@@ -72,16 +96,7 @@ public class JwtTokenProvider {
      * @return the subject (username) from the token
      */
     public String getSubjectFromToken(String token) {
-        try {
-            Algorithm algorithm = Algorithm.HMAC256(secretKey);
-            DecodedJWT decodedJWT = JWT.require(algorithm)
-                    .withIssuer(issuer)
-                    .build()
-                    .verify(token);
-            return decodedJWT.getSubject();
-        } catch (Exception e) {
-            return null;
-        }
+        return verifyToken(token).map(JwtPrincipal::subject).orElse(null);
     }
 
     /**
@@ -91,16 +106,6 @@ public class JwtTokenProvider {
      * @return true if token is expired, false otherwise
      */
     public boolean isTokenExpired(String token) {
-        try {
-            Algorithm algorithm = Algorithm.HMAC256(secretKey);
-            DecodedJWT decodedJWT = JWT.require(algorithm)
-                    .withIssuer(issuer)
-                    .build()
-                    .verify(token);
-            return decodedJWT.getExpiresAt().before(Date.from(Instant.now()));
-        } catch (Exception e) {
-            return true;
-        }
+        return verifyToken(token).isEmpty();
     }
 }
-
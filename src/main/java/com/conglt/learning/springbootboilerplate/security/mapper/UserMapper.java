@@ -3,6 +3,7 @@ package com.conglt.learning.springbootboilerplate.security.mapper;
 import com.conglt.learning.springbootboilerplate.model.User;
 import com.conglt.learning.springbootboilerplate.security.dto.RegistrationRequest;
 import com.conglt.learning.springbootboilerplate.security.dto.RegistrationResponse;
+import com.conglt.learning.springbootboilerplate.security.dto.UserAccountResponse;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -20,6 +21,14 @@ public interface UserMapper {
      */
     RegistrationResponse userToRegistrationResponse(User user);
 
+    /**
+     * Map User entity to UserAccountResponse DTO.
+     *
+     * @param user the user entity
+     * @return the account response DTO
+     */
+    UserAccountResponse userToAccountResponse(User user);
+
     /**
      * Map RegistrationRequest DTO to User entity.
      * Ignores fields that are set later by the service layer.
@@ -0,0 +1,196 @@
+package com.conglt.learning.springbootboilerplate.security.service;
+
+import com.conglt.learning.springbootboilerplate.exceptions.LoginThrottledException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt hashing and verification on a dedicated, CPU-sized thread pool with a bounded queue,
+ * so a burst of logins cannot occupy every request thread. When the queue is full the caller gets a
+ * {@link LoginThrottledException} (429) immediately instead of waiting.
+ * <p>
+ * Successful verifications are remembered for a short time, keyed by
+ * HMAC-SHA256(random per-process key, username, password, stored hash): the cache never holds a
+ * password or anything that can be checked offline, and changing the password changes the stored hash,
+ * which invalidates the entry.
+ */
+@Slf4j
+@Service
+public class PasswordHashingService {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final char SEPARATOR = '\u0000';
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Duration retryAfter;
+    private final SecretKeySpec cacheKey;
+    private final Cache<String, Boolean> verifiedCredentials;
+
+    private final Timer hashTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${security.password.threads:0}") int threads,
+                                  @Value("${security.password.queue-capacity:64}") int queueCapacity,
+                                  @Value("${security.password.timeout:5s}") Duration timeout,
+                                  @Value("${security.password.retry-after:1s}") Duration retryAfter,
+                                  @Value("${security.password.cache-ttl:60s}") Duration cacheTtl,
+                                  @Value("${security.password.cache-maximum-size:10000}") long cacheMaximumSize) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeout = timeout;
+        this.retryAfter = retryAfter;
+
+        // 0 = so nhan CPU, BCrypt thuan CPU nen them thread cung khong nhanh hon
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> Thread.ofPlatform()
+                        .name("password-hash-" + threadNumber.incrementAndGet())
+                        .daemon(true)
+                        .unstarted(runnable),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.cacheKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+        this.verifiedCredentials = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedCredentials, "verifiedCredentials");
+
+        this.hashTimer = Timer.builder("auth.password.hash")
+                .description("Time spent in BCrypt hashing or verification")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("auth.password.queue.wait")
+                .description("Time a hashing task waited for a free hashing thread")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.password.rejected")
+                .description("Hashing tasks rejected because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.queue.size", executor, e -> e.getQueue().size())
+                .description("Hashing tasks waiting for a thread")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Check a raw password against the stored hash of a user.
+     *
+     * @param username        the username, part of the cache key
+     * @param rawPassword     the password sent by the client
+     * @param encodedPassword the stored BCrypt hash
+     * @return true if the password matches
+     * @throws LoginThrottledException if the hashing queue is full
+     */
+    public boolean matches(String username, String rawPassword, String encodedPassword) {
+        String key = credentialKey(username, rawPassword, encodedPassword);
+        if (verifiedCredentials.getIfPresent(key) != null) {
+            return true;
+        }
+
+        boolean matches = execute(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+        if (matches) {
+            // chi cache lan dang nhap dung, sai mat khau van phai chay BCrypt moi lan
+            verifiedCredentials.put(key, Boolean.TRUE);
+        }
+        return matches;
+    }
+
+    /**
+     * Hash a new password.
+     *
+     * @param rawPassword the password to hash
+     * @return the BCrypt hash
+     * @throws LoginThrottledException if the hashing queue is full
+     */
+    public String encode(String rawPassword) {
+        return execute(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T execute(Callable<T> task) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueWaitTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return task.call();
+                } finally {
+                    hashTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new LoginThrottledException(retryAfter);
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new LoginThrottledException(retryAfter);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private String credentialKey(String username, String rawPassword, String encodedPassword) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(cacheKey);
+            String material = username + SEPARATOR + rawPassword + SEPARATOR + encodedPassword;
+            return Base64.getEncoder().encodeToString(mac.doFinal(material.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.conglt.learning.springbootboilerplate.security.service;
+
+import com.conglt.learning.springbootboilerplate.repository.UserRepository;
+import com.conglt.learning.springbootboilerplate.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+/**
+ * In-memory Bloom filters of taken usernames and emails, so registration can skip the
+ * {@code existsBy...} queries for values that are definitely free.
+ * Filled from {@code users} once the application is ready and updated on every registration.
+ * Until warm-up finishes every value is reported as "maybe taken", i.e. the database is asked.
+ * A negative answer can be stale when another instance registered the value; the unique constraints
+ * on {@code users} remain the source of truth.
+ */
+@Slf4j
+@Component
+public class UserExistenceFilter {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+
+    private final Counter skippedCounter;
+    private final Counter queriedCounter;
+
+    private volatile BloomFilter usernames;
+    private volatile BloomFilter emails;
+    private volatile boolean ready;
+
+    public UserExistenceFilter(UserRepository userRepository,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${registration.bloom.expected-users:1000000}") long expectedUsers,
+                               @Value("${registration.bloom.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.usernames = new BloomFilter(expectedUsers, falsePositiveRate);
+        this.emails = new BloomFilter(expectedUsers, falsePositiveRate);
+        this.skippedCounter = Counter.builder("registration.existence.checks")
+                .tag("result", "skipped")
+                .description("Username/email existence checks answered by the Bloom filter")
+                .register(meterRegistry);
+        this.queriedCounter = Counter.builder("registration.existence.checks")
+                .tag("result", "database")
+                .description("Username/email existence checks that needed the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Load every existing username and email. Registrations that happen meanwhile are added by
+     * {@link #add(String, String)} and are therefore not lost.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long started = System.currentTimeMillis();
+        long total = userRepository.count();
+        if (total * 2 > expectedUsers) {
+            // du cho gap doi so user hien tai de ti le duong tinh gia khong tang nhanh
+            usernames = new BloomFilter(total * 2, falsePositiveRate);
+            emails = new BloomFilter(total * 2, falsePositiveRate);
+        }
+        long loaded = readOnlyTransaction.execute(status -> {
+            long count = 0;
+            try (Stream<UserRepository.UserIdentity> identities = userRepository.streamAllIdentities()) {
+                for (UserRepository.UserIdentity identity : (Iterable<UserRepository.UserIdentity>) identities::iterator) {
+                    usernames.put(identity.getUsername());
+                    emails.put(identity.getEmail());
+                    count++;
+                }
+            }
+            return count;
+        });
+        ready = true;
+        log.info("User existence filter warmed with {} users in {}ms ({} bits, {} hash functions)",
+                loaded, System.currentTimeMillis() - started, usernames.bitSize(), usernames.hashFunctions());
+    }
+
+    /**
+     * @param username the username to check
+     * @return false if the username is definitely not taken, true if the database must be asked
+     */
+    public boolean mightContainUsername(String username) {
+        return check(usernames, username);
+    }
+
+    /**
+     * @param email the email to check
+     * @return false if the email is definitely not taken, true if the database must be asked
+     */
+    public boolean mightContainEmail(String email) {
+        return check(emails, email);
+    }
+
+    /**
+     * Record a taken username and email.
+     *
+     * @param username the username
+     * @param email    the email
+     */
+    public void add(String username, String email) {
+        usernames.put(username);
+        emails.put(email);
+    }
+
+    private boolean check(BloomFilter filter, String value) {
+        if (!ready || filter.mightContain(value)) {
+            queriedCounter.increment();
+            return true;
+        }
+        skippedCounter.increment();
+        return false;
+    }
+}
@@ -0,0 +1,60 @@
+package com.conglt.learning.springbootboilerplate.security.service;
+
+import com.conglt.learning.springbootboilerplate.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Cache of {@link UserSnapshot}s keyed by user id, so the JWT filter can attach the user's role and
+ * reject disabled accounts without a database query per request.
+ * Entries are dropped explicitly when this instance changes a role or status, and expire after
+ * {@code security.principal-cache.ttl} otherwise, which bounds how long a change made elsewhere
+ * (another instance, direct SQL) takes to apply.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, UserSnapshot> cache;
+
+    public UserPrincipalCache(UserRepository userRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${security.principal-cache.ttl:60s}") Duration ttl,
+                              @Value("${security.principal-cache.maximum-size:10000}") long maximumSize) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userPrincipals");
+    }
+
+    /**
+     * Current snapshot of a user, loaded from the database on a miss.
+     * Unknown ids are cached as inactive so a token of a deleted user does not query on every request.
+     *
+     * @param userId the user id
+     * @return the snapshot, never null
+     */
+    public UserSnapshot get(Long userId) {
+        return cache.get(userId, id -> userRepository.findById(id)
+                .map(UserSnapshot::of)
+                .orElseGet(() -> UserSnapshot.missing(id)));
+    }
+
+    /**
+     * Forget a user so the next request reloads their role and status.
+     *
+     * @param userId the user id
+     */
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+    }
+}
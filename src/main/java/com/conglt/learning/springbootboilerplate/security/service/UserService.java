@@ -11,7 +11,8 @@ import com.conglt.learning.springbootboilerplate.security.jwt.JwtTokenProvider;
 import com.conglt.learning.springbootboilerplate.security.mapper.UserMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 /**
@@ -23,9 +24,11 @@ import org.springframework.stereotype.Service;
 public class UserService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtTokenProvider jwtTokenProvider;
     private final UserMapper userMapper;
+    private final UserExistenceFilter userExistenceFilter;
+    private final UserPrincipalCache userPrincipalCache;
 
     /**
      * Register a new user.
@@ -35,28 +38,37 @@ public class UserService {
      * @throws IllegalArgumentException if username or email already exists
      */
     public RegistrationResponse registration(RegistrationRequest registrationRequest) {
-        log.info("Registering new user with username: {}", registrationRequest.getUsername());
+        log.debug("Registering new user with username: {}", registrationRequest.getUsername());
 
-        // Check if username already exists
-        if (userRepository.existsByUsername(registrationRequest.getUsername())) {
+        // Check if username already exists (skipped when the Bloom filter says it is definitely free)
+        if (userExistenceFilter.mightContainUsername(registrationRequest.getUsername())
+                && userRepository.existsByUsername(registrationRequest.getUsername())) {
             log.error("Username already exists: {}", registrationRequest.getUsername());
             throw new IllegalArgumentException("Username already exists");
         }
 
         // Check if email already exists
-        if (userRepository.existsByEmail(registrationRequest.getEmail())) {
+        if (userExistenceFilter.mightContainEmail(registrationRequest.getEmail())
+                && userRepository.existsByEmail(registrationRequest.getEmail())) {
             log.error("Email already exists: {}", registrationRequest.getEmail());
             throw new IllegalArgumentException("Email already exists");
         }
 
         // Create new user
         User user = userMapper.registrationRequestToUser(registrationRequest);
-        user.setPassword(passwordEncoder.encode(registrationRequest.getPassword()));
+        user.setPassword(passwordHashingService.encode(registrationRequest.getPassword()));
         user.setRole(UserRole.ROLE_USER);
         user.setIsActive(true);
 
-        // Save user
-        User savedUser = userRepository.save(user);
+        // Save user; the unique constraints catch races and stale filter answers
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            userExistenceFilter.add(registrationRequest.getUsername(), registrationRequest.getEmail());
+            throw translateUniqueViolation(e);
+        }
+        userExistenceFilter.add(savedUser.getUsername(), savedUser.getEmail());
         log.info("User registered successfully with ID: {}", savedUser.getId());
 
         return userMapper.userToRegistrationResponse(savedUser);
@@ -68,9 +80,10 @@ public class UserService {
      * @param loginRequest the login request
      * @return the login response with JWT token
      * @throws IllegalArgumentException if username not found or password is incorrect
+     * @throws com.conglt.learning.springbootboilerplate.exceptions.LoginThrottledException if password checks are saturated
      */
     public LoginResponse login(LoginRequest loginRequest) {
-        log.info("Authenticating user: {}", loginRequest.getUsername());
+        log.debug("Authenticating user: {}", loginRequest.getUsername());
 
         // Find user by username
         User user = userRepository.findByUsername(loginRequest.getUsername())
@@ -79,15 +92,21 @@ public class UserService {
                     return new IllegalArgumentException("Invalid username or password");
                 });
 
-        // Verify password
-        if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
+        // Verify password (BCrypt runs on the bounded hashing pool, recent successes are cached)
+        if (!passwordHashingService.matches(user.getUsername(), loginRequest.getPassword(), user.getPassword())) {
             log.error("Invalid password for user: {}", loginRequest.getUsername());
             throw new IllegalArgumentException("Invalid username or password");
         }
 
+        // Disabled accounts cannot log in; same message so the response does not reveal the account state
+        if (!Boolean.TRUE.equals(user.getIsActive())) {
+            log.error("Inactive user tried to log in: {}", loginRequest.getUsername());
+            throw new IllegalArgumentException("Invalid username or password");
+        }
+
         // Generate JWT token
-        String token = jwtTokenProvider.generateToken(user.getUsername());
-        log.info("JWT token generated for user: {}", user.getUsername());
+        String token = jwtTokenProvider.generateToken(user.getUsername(), user.getId());
+        log.debug("JWT token generated for user: {}", user.getUsername());
 
         return new LoginResponse(token);
     }
@@ -103,5 +122,79 @@ public class UserService {
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new IllegalArgumentException("User not found: " + username));
     }
-}
 
+    /**
+     * Change the role of a user. Takes effect on this instance immediately and on others within
+     * the principal cache TTL.
+     *
+     * @param userId the user id
+     * @param role   the new role
+     * @return the updated user
+     * @throws IllegalArgumentException if user not found
+     */
+    public User updateRole(Long userId, UserRole role) {
+        User user = getUserById(userId);
+        user.setRole(role);
+        User savedUser = userRepository.save(user);
+        userPrincipalCache.invalidate(userId);
+        log.info("Role of user {} changed to {}", savedUser.getUsername(), role);
+        return savedUser;
+    }
+
+    /**
+     * Enable or disable a user. Tokens of a disabled user stop working on this instance immediately
+     * and on others within the principal cache TTL.
+     *
+     * @param userId the user id
+     * @param active the new status
+     * @return the updated user
+     * @throws IllegalArgumentException if user not found
+     */
+    public User updateActive(Long userId, boolean active) {
+        User user = getUserById(userId);
+        user.setIsActive(active);
+        User savedUser = userRepository.save(user);
+        userPrincipalCache.invalidate(userId);
+        log.info("User {} is now {}", savedUser.getUsername(), active ? "active" : "inactive");
+        return savedUser;
+    }
+
+    /**
+     * Get user by id.
+     *
+     * @param userId the user id
+     * @return the user
+     * @throws IllegalArgumentException if user not found
+     */
+    public User getUserById(Long userId) {
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
+    }
+
+    /**
+     * Map a unique-constraint violation on users back to the validation message of the existing checks.
+     */
+    private RuntimeException translateUniqueViolation(DataIntegrityViolationException e) {
+        String constraint = null;
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                constraint = violation.getConstraintName();
+                break;
+            }
+        }
+        if (constraint == null && e.getMostSpecificCause().getMessage() != null) {
+            constraint = e.getMostSpecificCause().getMessage();
+        }
+
+        // ten constraint mac dinh cua PostgreSQL: users_username_key, users_email_key
+        if (constraint != null && constraint.contains("users_username")) {
+            log.error("Username already exists (constraint): {}", constraint);
+            return new IllegalArgumentException("Username already exists");
+        }
+        if (constraint != null && constraint.contains("users_email")) {
+            log.error("Email already exists (constraint): {}", constraint);
+            return new IllegalArgumentException("Email already exists");
+        }
+        return e;
+    }
+}
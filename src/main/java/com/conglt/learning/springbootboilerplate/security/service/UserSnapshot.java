@@ -0,0 +1,23 @@
+package com.conglt.learning.springbootboilerplate.security.service;
+
+import com.conglt.learning.springbootboilerplate.model.User;
+import com.conglt.learning.springbootboilerplate.model.UserRole;
+
+/**
+ * Authorization-relevant state of a user, as cached by {@link UserPrincipalCache}.
+ *
+ * @param id       the user id
+ * @param username the username
+ * @param role     the current role
+ * @param active   false if the account is disabled or no longer exists
+ */
+public record UserSnapshot(Long id, String username, UserRole role, boolean active) {
+
+    static UserSnapshot of(User user) {
+        return new UserSnapshot(user.getId(), user.getUsername(), user.getRole(), Boolean.TRUE.equals(user.getIsActive()));
+    }
+
+    static UserSnapshot missing(Long id) {
+        return new UserSnapshot(id, null, null, false);
+    }
+}
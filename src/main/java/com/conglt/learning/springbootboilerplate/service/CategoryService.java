@@ -1,5 +1,7 @@
 package com.conglt.learning.springbootboilerplate.service;
 
+import com.conglt.learning.springbootboilerplate.dto.CategoryNode;
+import com.conglt.learning.springbootboilerplate.dto.Versioned;
 import com.conglt.learning.springbootboilerplate.model.Category;
 
 import java.util.List;
@@ -19,4 +21,19 @@ public interface CategoryService {
 
     //Dinh nghia ham xoa
     void deleteCategory(Long id);
+
+    //Version cua bang categories (lam ETag cho danh sach danh muc)
+    long getCategoryListVersion();
+
+    //Danh sach danh muc doc tu DB, chi goi khi version doi (PreparedResponseCache giu ban da serialize)
+    List<Category> loadCategoryList();
+
+    //Cay danh muc day du (menu), doc tu bo nho, kem checksum cua cay (lam ETag)
+    Versioned<List<CategoryNode>> getCategoryTree();
+
+    //Danh muc va toan bo danh muc con chau
+    CategoryNode getSubtree(Long id);
+
+    //Duong dan tu danh muc goc den danh muc nay
+    List<CategoryNode> getBreadcrumb(Long id);
 }
@@ -0,0 +1,11 @@
+package com.conglt.learning.springbootboilerplate.service;
+
+import com.conglt.learning.springbootboilerplate.dto.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ProductExportService {
+    //Ghi toan bo catalog ra outputStream theo tung dong, tra ve so dong da ghi
+    long export(ExportFormat format, OutputStream outputStream) throws IOException;
+}
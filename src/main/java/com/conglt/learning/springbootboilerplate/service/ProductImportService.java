@@ -0,0 +1,14 @@
+package com.conglt.learning.springbootboilerplate.service;
+
+import com.conglt.learning.springbootboilerplate.dto.BulkImportResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ProductImportService {
+    //Import mot mang JSON san pham, doc theo luong (khong nap het vao bo nho)
+    BulkImportResult importJson(InputStream inputStream) throws IOException;
+
+    //Import file CSV co dong header: name,description,price,stock,imageUrl,categoryId
+    BulkImportResult importCsv(InputStream inputStream) throws IOException;
+}
@@ -1,8 +1,13 @@
 package com.conglt.learning.springbootboilerplate.service;
 
+import com.conglt.learning.springbootboilerplate.dto.CursorPage;
+import com.conglt.learning.springbootboilerplate.dto.ProductListCriteria;
+import com.conglt.learning.springbootboilerplate.dto.ProductSearchCriteria;
+import com.conglt.learning.springbootboilerplate.dto.ProductView;
 import com.conglt.learning.springbootboilerplate.model.Product;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ProductService {
     Product createProduct(Product product);
@@ -11,9 +16,32 @@ public interface ProductService {
 
     void deleteProduct(Long id);
 
-    List<Product> getAllProducts();
+    //Danh sach san pham dang read model (1 query, khong kem ca entity Category)
+    List<ProductView> getAllProducts();
 
+    //Lay mot trang san pham theo cursor (keyset pagination tren id)
+    CursorPage<ProductView> getProductPage(String cursor, Integer size);
+
+    //Lay mot trang san pham cua danh muc va tat ca danh muc con chau (1 query)
+    CursorPage<ProductView> getCategoryTreeProductPage(Long categoryId, String cursor, Integer size);
+
+    //Trang danh sach san pham cho giao dien admin: loc, sap xep, phan trang bang cursor (dung index)
+    CursorPage<ProductView> getProductListPage(ProductListCriteria criteria);
+
+    //Tim kiem full-text theo ten/mo ta, xep theo do lien quan, phan trang bang cursor
+    CursorPage<ProductView> searchProducts(ProductSearchCriteria criteria, String cursor, Integer size);
+
+    //Duyet toan bo san pham theo tung dong, khong nap het vao bo nho
+    void streamAllProducts(Consumer<ProductView> consumer);
+
+    //Version cua du lieu san pham + danh muc (bo dem thay doi trong DB), lam ETag cho cac API danh sach
+    long getCatalogDataVersion();
+
+    //Lay entity de chinh sua (form, update)
     Product getProductById(Long id);
 
-    List<Product> getProductsByCategoryId(Long categoryId);
+    //Lay chi tiet san pham dang read model de tra ve client
+    ProductView getProductViewById(Long id);
+
+    List<ProductView> getProductsByCategoryId(Long categoryId);
 }
@@ -0,0 +1,16 @@
+package com.conglt.learning.springbootboilerplate.service;
+
+import com.conglt.learning.springbootboilerplate.dto.StockReservation;
+
+import java.util.UUID;
+
+public interface StockService {
+    //Giu cho mot so luong hang, chua tru kho trong DB
+    StockReservation reserve(Long productId, int quantity);
+
+    //Tru kho that su trong DB bang mot cau UPDATE co dieu kien
+    StockReservation commit(UUID reservationId);
+
+    //Tra lai so luong da giu
+    void release(UUID reservationId);
+}
@@ -0,0 +1,39 @@
+package com.conglt.learning.springbootboilerplate.service.impl;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counter of the product catalog on this node, used as part of the key of caches that hold
+ * rendered listings. Bumped once a product or category write commits (or immediately when the write ran
+ * outside a transaction), so entries of an older version are simply never read again.
+ * Writes made by other instances are not seen here; those caches must also have a short TTL.
+ */
+@Component
+public class CatalogVersion {
+
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Published by product writes; the version is bumped once the transaction commits.
+     */
+    public record ProductsChanged() {
+    }
+
+    public long current() {
+        return version.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsChanged(ProductsChanged event) {
+        version.incrementAndGet();
+    }
+
+    //ten danh muc hien tren danh sach san pham nen cung phai doi version
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoriesChanged(CategoryTreeSnapshot.CategoriesChanged event) {
+        version.incrementAndGet();
+    }
+}
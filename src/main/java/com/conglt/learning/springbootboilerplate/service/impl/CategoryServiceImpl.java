@@ -1,55 +1,183 @@
 package com.conglt.learning.springbootboilerplate.service.impl;
 
+import com.conglt.learning.springbootboilerplate.audit.AuditAction;
+import com.conglt.learning.springbootboilerplate.audit.AuditEvent;
+import com.conglt.learning.springbootboilerplate.configuration.CacheConfiguration;
+import com.conglt.learning.springbootboilerplate.dto.CategoryNode;
+import com.conglt.learning.springbootboilerplate.dto.Versioned;
 import com.conglt.learning.springbootboilerplate.model.Category;
 import com.conglt.learning.springbootboilerplate.repository.CategoryRepository;
+import com.conglt.learning.springbootboilerplate.repository.TableChangeCounterRepository;
 import com.conglt.learning.springbootboilerplate.service.CategoryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Service //Danh dau cho Spring biet day la Service
 @RequiredArgsConstructor //Tu dong tiem inject cai Repository vao de dung
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository; //goi ong thu kho vao day
-
+    private final CategoryTreeSnapshot categoryTreeSnapshot;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TableChangeCounterRepository tableChangeCounterRepository;
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfiguration.CATEGORY_LIST, allEntries = true)
     public Category createCategory(Category category) {
-        return categoryRepository.save(category);
+        //path va depth tinh tu danh muc cha, khong lay tu client
+        placeUnder(category, category.getParentId());
+        Category saved = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryTreeSnapshot.CategoriesChanged());
+        return saved;
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfiguration.CATEGORY_LIST, key = "'all'", sync = true)
     public List<Category> getAllCategories() {
-        return categoryRepository.findAll();
+        return categoryRepository.findAll().stream().map(CategoryServiceImpl::detachedCopy).toList();
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfiguration.CATEGORIES, key = "#id", sync = true)
     public Category getCategoryById(Long id) {
-        return categoryRepository.findById(id).orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
+        return detachedCopy(findCategory(id));
     }
 
     @Override
+    @Transactional
+    //ProductView chua ten category nen cung phai xoa cache san pham
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfiguration.CATEGORIES, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfiguration.CATEGORY_LIST, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfiguration.PRODUCTS, allEntries = true)
+    })
     public Category updateCategory(Long id, Category category) {
         //Buoc 1: tim xem thang cu co ton tai hya khong?
-        Category existingCategory = getCategoryById(id);
+        Category existingCategory = findCategory(id);
 
         //Buoc 2: Cap nhat thong tin moi vao thang cu
         existingCategory.setName(category.getName());
         existingCategory.setDescription(category.getDescription());
         existingCategory.setIcon(category.getIcon());
 
+        //Doi danh muc cha: chuyen ca cay con sang vi tri moi
+        if (!Objects.equals(existingCategory.getParentId(), category.getParentId())) {
+            move(existingCategory, category.getParentId());
+        }
+
         //Buoc 3: luu lai
-        return categoryRepository.save(existingCategory);
+        Category saved = categoryRepository.save(existingCategory);
+        eventPublisher.publishEvent(new CategoryTreeSnapshot.CategoriesChanged());
+        return saved;
     }
 
     @Override
+    @Transactional
+    //ProductView chua ten category nen cung phai xoa cache san pham
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfiguration.CATEGORIES, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfiguration.CATEGORY_LIST, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfiguration.PRODUCTS, allEntries = true)
+    })
     public void deleteCategory(Long id) {
         //truoc khi xoa thi phai kiem tra no co ton tai hay khong
         if (!categoryRepository.existsById(id)) {
             throw new RuntimeException("Category not found with id: " + id);
         }
+        //khong xoa danh muc con dang co danh muc con
+        if (categoryRepository.existsByParentId(id)) {
+            throw new IllegalArgumentException("Category " + id + " has subcategories, move or delete them first");
+        }
         categoryRepository.deleteById(id);
+        eventPublisher.publishEvent(new CategoryTreeSnapshot.CategoriesChanged());
+    }
+
+    @Override
+    public long getCategoryListVersion() {
+        return tableChangeCounterRepository.currentVersion(TableChangeCounterRepository.CATEGORIES);
+    }
+
+    @Override
+    public List<Category> loadCategoryList() {
+        //doc thang DB, khong qua cache CATEGORY_LIST: ban cache do co the cu hon version vua doc
+        return categoryRepository.findAll();
+    }
+
+    @Override
+    public Versioned<List<CategoryNode>> getCategoryTree() {
+        return categoryTreeSnapshot.versionedRoots();
+    }
+
+    @Override
+    public CategoryNode getSubtree(Long id) {
+        return categoryTreeSnapshot.node(id)
+                .orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
+    }
+
+    @Override
+    public List<CategoryNode> getBreadcrumb(Long id) {
+        List<CategoryNode> breadcrumb = categoryTreeSnapshot.breadcrumb(id);
+        if (breadcrumb.isEmpty()) {
+            throw new RuntimeException("Category not found with id: " + id);
+        }
+        return breadcrumb;
+    }
+
+    private Category findCategory(Long id) {
+        return categoryRepository.findById(id).orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
+    }
+
+    //cache giu ban sao, khong giu entity cua persistence context: nguoi doc sua entity se khong lam hong cache
+    private static Category detachedCopy(Category category) {
+        return category.toBuilder().build();
+    }
+
+    //Gan parentId, path, depth theo danh muc cha (null = danh muc goc)
+    private void placeUnder(Category category, Long parentId) {
+        if (parentId == null) {
+            category.setParentId(null);
+            category.setPath("/");
+            category.setDepth(0);
+            return;
+        }
+        Category parent = categoryRepository.findById(parentId)
+                .orElseThrow(() -> new IllegalArgumentException("Parent category not found with id: " + parentId));
+        category.setParentId(parent.getId());
+        category.setPath(parent.getPath() + parent.getId() + "/");
+        category.setDepth(parent.getDepth() + 1);
+    }
+
+    //Chuyen danh muc sang cha moi va cap nhat path/depth cua ca cay con trong 1 cau UPDATE
+    private void move(Category category, Long newParentId) {
+        String subtreePath = category.getPath() + category.getId() + "/";
+        String oldPath = category.getPath();
+        int oldDepth = category.getDepth();
+
+        placeUnder(category, newParentId);
+        //khong cho chuyen vao chinh no hoac vao danh muc con cua no (tao vong)
+        if (category.getPath().startsWith(subtreePath)) {
+            throw new IllegalArgumentException("A category cannot be moved under itself or one of its subcategories");
+        }
+
+        categoryRepository.saveAndFlush(category);
+        int moved = categoryRepository.moveDescendants(subtreePath, CategoryTreeSnapshot.pathRangeEnd(subtreePath),
+                oldPath.length(), category.getPath(), category.getDepth() - oldDepth);
+        //cau UPDATE bulk khong di qua Hibernate listener: ghi 1 dong audit cho ca cay con, sau khi commit
+        if (moved > 0) {
+            eventPublisher.publishEvent(AuditEvent.of("Category", category.getId(), AuditAction.UPDATE,
+                    Map.of("descendants", Map.of("count", moved,
+                            "oldPath", subtreePath,
+                            "newPath", category.getPath() + category.getId() + "/"))));
+        }
     }
 }
@@ -0,0 +1,176 @@
+package com.conglt.learning.springbootboilerplate.service.impl;
+
+import com.conglt.learning.springbootboilerplate.dto.CategoryNode;
+import com.conglt.learning.springbootboilerplate.dto.Versioned;
+import com.conglt.learning.springbootboilerplate.model.Category;
+import com.conglt.learning.springbootboilerplate.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+
+/**
+ * Immutable in-memory copy of the whole category tree, so menus, subtrees and breadcrumbs never query the DB.
+ * Rebuilt from one query after every committed category write on this node, and every
+ * {@code category.tree.refresh-interval} to pick up writes made by other instances.
+ * Readers always see a complete tree: a rebuild swaps the reference atomically.
+ * Each tree carries a checksum of its content, used as the ETag of the tree API.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryTreeSnapshot {
+
+    private static final Comparator<Category> BY_NAME = Comparator.comparing(Category::getName,
+            String.CASE_INSENSITIVE_ORDER).thenComparing(Category::getId);
+
+    private final CategoryRepository categoryRepository;
+
+    private final AtomicReference<Tree> tree = new AtomicReference<>();
+
+    /**
+     * Published by category writes; the tree is rebuilt once the transaction commits.
+     */
+    public record CategoriesChanged() {
+    }
+
+    /**
+     * @return the root nodes together with the checksum of the tree they belong to
+     */
+    public Versioned<List<CategoryNode>> versionedRoots() {
+        Tree snapshot = current();
+        return new Versioned<>(snapshot.checksum(), snapshot.roots());
+    }
+
+    public Optional<CategoryNode> node(Long id) {
+        return Optional.ofNullable(current().nodes().get(id));
+    }
+
+    /**
+     * @return the categories from the root down to {@code id} (inclusive), empty if the id is unknown
+     */
+    public List<CategoryNode> breadcrumb(Long id) {
+        Tree snapshot = current();
+        List<CategoryNode> crumbs = new ArrayList<>();
+        CategoryNode node = snapshot.nodes().get(id);
+        while (node != null) {
+            crumbs.addFirst(node.withoutChildren());
+            node = node.parentId() != null ? snapshot.nodes().get(node.parentId()) : null;
+        }
+        return crumbs;
+    }
+
+    /**
+     * @return the path shared by all descendants of {@code id} (e.g. {@code /1/5/}), or null if the id is unknown
+     */
+    public String descendantPath(Long id) {
+        return current().descendantPaths().get(id);
+    }
+
+    /**
+     * End of the path range of a subtree: {@code /1/5/} becomes {@code /1/50} ('0' sorts right after '/'),
+     * so every descendant path lies in {@code [path, end)}.
+     */
+    static String pathRangeEnd(String descendantPath) {
+        return descendantPath.substring(0, descendantPath.length() - 1) + '0';
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoriesChanged(CategoriesChanged event) {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${category.tree.refresh-interval:5m}",
+            initialDelayString = "${category.tree.refresh-interval:5m}")
+    public void refresh() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        List<Category> categories = categoryRepository.findAll(Sort.by("path", "id"));
+        tree.set(build(categories));
+        log.debug("Category tree rebuilt with {} categories", categories.size());
+    }
+
+    private Tree current() {
+        Tree snapshot = tree.get();
+        if (snapshot == null) {
+            synchronized (this) {
+                snapshot = tree.get();
+                if (snapshot == null) {
+                    rebuild();
+                    snapshot = tree.get();
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private static Tree build(List<Category> categories) {
+        Map<Long, List<Category>> childrenByParent = new HashMap<>();
+        List<Category> roots = new ArrayList<>();
+        Map<Long, String> descendantPaths = new HashMap<>();
+        for (Category category : categories) {
+            descendantPaths.put(category.getId(), category.getPath() + category.getId() + "/");
+            if (category.getParentId() == null) {
+                roots.add(category);
+            } else {
+                childrenByParent.computeIfAbsent(category.getParentId(), key -> new ArrayList<>()).add(category);
+            }
+        }
+        Map<Long, CategoryNode> nodes = new HashMap<>();
+        roots.sort(BY_NAME);
+        List<CategoryNode> rootNodes = roots.stream()
+                .map(root -> toNode(root, childrenByParent, nodes))
+                .toList();
+        return new Tree(rootNodes, Map.copyOf(nodes), Map.copyOf(descendantPaths), checksum(categories));
+    }
+
+    //categories da sap xep theo (path, id) nen cung noi dung -> cung checksum, tren moi instance
+    private static long checksum(List<Category> categories) {
+        CRC32 crc = new CRC32();
+        for (Category category : categories) {
+            String row = category.getId() + "|" + category.getParentId() + "|" + category.getName() + "|"
+                    + category.getIcon() + "|" + category.getDepth() + "\n";
+            crc.update(row.getBytes(StandardCharsets.UTF_8));
+        }
+        return crc.getValue();
+    }
+
+    //dung node tu la len goc: children phai xong truoc khi tao node cha (record bat bien)
+    private static CategoryNode toNode(Category category, Map<Long, List<Category>> childrenByParent,
+                                       Map<Long, CategoryNode> nodes) {
+        List<Category> children = childrenByParent.getOrDefault(category.getId(), List.of());
+        List<CategoryNode> childNodes = children.stream()
+                .sorted(BY_NAME)
+                .map(child -> toNode(child, childrenByParent, nodes))
+                .toList();
+        CategoryNode node = new CategoryNode(category.getId(), category.getName(), category.getIcon(),
+                category.getParentId(), category.getDepth(), childNodes);
+        nodes.put(node.id(), node);
+        return node;
+    }
+
+    private record Tree(List<CategoryNode> roots, Map<Long, CategoryNode> nodes, Map<Long, String> descendantPaths,
+                        long checksum) {
+    }
+}
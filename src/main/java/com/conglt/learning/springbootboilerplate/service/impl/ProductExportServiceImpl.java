@@ -0,0 +1,180 @@
+package com.conglt.learning.springbootboilerplate.service.impl;
+
+import com.conglt.learning.springbootboilerplate.dto.ExportFormat;
+import com.conglt.learning.springbootboilerplate.dto.ProductView;
+import com.conglt.learning.springbootboilerplate.json.JsonWriters;
+import com.conglt.learning.springbootboilerplate.service.ProductExportService;
+import com.conglt.learning.springbootboilerplate.service.ProductService;
+import com.conglt.learning.springbootboilerplate.util.CsvWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams the product catalog as CSV, NDJSON or a JSON array.
+ * Rows come from {@link ProductService#streamAllProducts} (server-side cursor, DTO projection) and are
+ * written one by one, so heap usage does not depend on catalog size.
+ * Publishes {@code catalog.export.rows}, {@code catalog.export.active} and {@code catalog.export.duration}.
+ */
+@Slf4j
+@Service
+public class ProductExportServiceImpl implements ProductExportService {
+
+    private static final int FLUSH_EVERY_ROWS = 1000;
+    private static final int LOG_EVERY_ROWS = 100_000;
+
+    private final ProductService productService;
+    private final JsonWriters jsonWriters;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger activeExports = new AtomicInteger();
+
+    public ProductExportServiceImpl(ProductService productService, JsonWriters jsonWriters, MeterRegistry meterRegistry) {
+        this.productService = productService;
+        this.jsonWriters = jsonWriters;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("catalog.export.active", activeExports, AtomicInteger::get)
+                .description("Catalog exports currently streaming")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public long export(ExportFormat format, OutputStream outputStream) throws IOException {
+        Counter rows = Counter.builder("catalog.export.rows")
+                .tag("format", format.getExtension())
+                .description("Rows written by catalog exports")
+                .register(meterRegistry);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        activeExports.incrementAndGet();
+        String outcome = "error";
+
+        try {
+            RowWriter writer = switch (format) {
+                case CSV -> csvWriter(outputStream);
+                case NDJSON -> ndjsonWriter(outputStream);
+                case JSON -> jsonArrayWriter(outputStream);
+            };
+            long[] count = {0L};
+
+            productService.streamAllProducts(view -> {
+                try {
+                    writer.write(view);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows.increment();
+                long written = ++count[0];
+                if (written % FLUSH_EVERY_ROWS == 0) {
+                    flushQuietly(writer);
+                }
+                if (written % LOG_EVERY_ROWS == 0) {
+                    log.info("Catalog export ({}) progress: {} rows", format, written);
+                }
+            });
+            writer.finish();
+
+            outcome = "success";
+            log.info("Catalog export ({}) finished: {} rows", format, count[0]);
+            return count[0];
+        } catch (UncheckedIOException e) {
+            //client ngat ket noi giua chung
+            throw e.getCause();
+        } finally {
+            activeExports.decrementAndGet();
+            sample.stop(Timer.builder("catalog.export.duration")
+                    .tag("format", format.getExtension())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private RowWriter csvWriter(OutputStream outputStream) throws IOException {
+        CsvWriter csv = new CsvWriter(new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)));
+        csv.writeRecord("id", "name", "description", "price", "stock", "imageUrl", "categoryId", "categoryName", "createdAt", "updatedAt");
+        return new RowWriter() {
+            @Override
+            public void write(ProductView view) throws IOException {
+                csv.writeRecord(view.getId(), view.getName(), view.getDescription(), view.getPrice(), view.getStock(),
+                        view.getImageUrl(), view.getCategoryId(), view.getCategoryName(), view.getCreatedAt(), view.getUpdatedAt());
+            }
+
+            @Override
+            public void flush() throws IOException {
+                csv.flush();
+            }
+        };
+    }
+
+    private RowWriter ndjsonWriter(OutputStream outputStream) throws IOException {
+        JsonGenerator generator = jsonWriters.createGenerator(outputStream);
+        generator.setRootValueSeparator(null);
+        //writer dung chung: serializer cua ProductView chi tim 1 lan, khong tim lai moi dong
+        ObjectWriter viewWriter = jsonWriters.forType(ProductView.class);
+        return new RowWriter() {
+            @Override
+            public void write(ProductView view) throws IOException {
+                viewWriter.writeValue(generator, view);
+                generator.writeRaw('\n');
+            }
+
+            @Override
+            public void flush() throws IOException {
+                generator.flush();
+            }
+        };
+    }
+
+    //mang JSON ghi tung phan tu thang ra stream, khong gom thanh List truoc
+    private RowWriter jsonArrayWriter(OutputStream outputStream) throws IOException {
+        JsonGenerator generator = jsonWriters.createGenerator(outputStream);
+        ObjectWriter viewWriter = jsonWriters.forType(ProductView.class);
+        generator.writeStartArray();
+        return new RowWriter() {
+            @Override
+            public void write(ProductView view) throws IOException {
+                viewWriter.writeValue(generator, view);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                generator.flush();
+            }
+
+            @Override
+            public void finish() throws IOException {
+                generator.writeEndArray();
+                generator.flush();
+            }
+        };
+    }
+
+    private static void flushQuietly(RowWriter writer) {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private interface RowWriter {
+        void write(ProductView view) throws IOException;
+
+        void flush() throws IOException;
+
+        default void finish() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,406 @@
+package com.conglt.learning.springbootboilerplate.service.impl;
+
+import com.conglt.learning.springbootboilerplate.audit.AuditAction;
+import com.conglt.learning.springbootboilerplate.audit.AuditEvent;
+import com.conglt.learning.springbootboilerplate.audit.AuditQueue;
+import com.conglt.learning.springbootboilerplate.dto.BulkImportResult;
+import com.conglt.learning.springbootboilerplate.dto.ImportRowError;
+import com.conglt.learning.springbootboilerplate.dto.ProductImportRow;
+import com.conglt.learning.springbootboilerplate.repository.CategoryRepository;
+import com.conglt.learning.springbootboilerplate.service.ProductImportService;
+import com.conglt.learning.springbootboilerplate.util.CsvReader;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk product import.
+ * The request body is parsed as a stream, rows are validated against the category ids loaded
+ * once up front, and valid rows are written with plain JDBC batches (one transaction per batch).
+ * With {@code reWriteBatchedInserts=true} the PostgreSQL driver turns each batch into multi-row
+ * INSERTs; ids come from the column's identity sequence.
+ * A batch that still fails is retried row by row to report exactly which rows were rejected.
+ * The inserts bypass Hibernate, so when auditing is on the generated ids are read back
+ * and one CREATE audit event per imported row is queued after its batch commits.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final String INSERT_SQL = "INSERT INTO products "
+            + "(name, description, price, stock, image_url, category_id, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final List<String> CSV_COLUMNS = List.of("name", "description", "price", "stock", "imageUrl", "categoryId");
+
+    private static final String[] ID_COLUMN = {"id"};
+
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CategoryRepository categoryRepository;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AuditQueue auditQueue;
+
+    @Value("${audit.enabled:true}")
+    private boolean auditEnabled;
+
+    @Value("${product.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${product.import.max-errors:1000}")
+    private int maxErrors;
+
+    @Override
+    public BulkImportResult importJson(InputStream inputStream) throws IOException {
+        ImportContext context = newContext();
+        //dong dang doc, de bao loi cau truc dung vi tri
+        long reading = 1;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of products");
+            }
+            while (true) {
+                reading = context.received + 1;
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.END_ARRAY) {
+                    break;
+                }
+                if (token == null) {
+                    return context.abort(reading, "the JSON array is not closed");
+                }
+                long rowNumber = ++context.received;
+                //phan tu khong phai object (so, chuoi, mang con) la 1 dong loi, bo qua roi doc tiep
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    context.reject(rowNumber, "Invalid row: expected a product object but got " + token);
+                    continue;
+                }
+                //doc tung phan tu thanh tree truoc, de loi kieu du lieu chi lam hong 1 dong
+                JsonNode node = parser.readValueAsTree();
+                try {
+                    context.accept(rowNumber, objectMapper.treeToValue(node, ProductImportRow.class));
+                } catch (JsonProcessingException e) {
+                    context.reject(rowNumber, "Invalid row: " + e.getOriginalMessage());
+                }
+            }
+        } catch (JsonProcessingException e) {
+            //JSON hong giua chung: cac batch truoc da commit, phai bao lai cho client
+            return context.abort(reading, "malformed JSON: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            return context.abort(reading, "could not read the request body: " + e.getMessage());
+        }
+
+        return context.finish();
+    }
+
+    @Override
+    public BulkImportResult importCsv(InputStream inputStream) throws IOException {
+        ImportContext context = newContext();
+
+        CsvReader csvReader = new CsvReader(new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)));
+        List<String> header;
+        try {
+            header = csvReader.readRecord();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid CSV header: " + e.getMessage());
+        }
+        if (header == null) {
+            throw new IllegalArgumentException("CSV header is required: " + String.join(",", CSV_COLUMNS));
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim(), i);
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("price")) {
+            throw new IllegalArgumentException("CSV header must contain at least name and price");
+        }
+
+        List<String> record;
+        while (true) {
+            try {
+                record = csvReader.readRecord();
+            } catch (IOException e) {
+                //vd dau nhay khong dong: cac batch truoc da commit, phai bao lai cho client
+                return context.abort(context.received + 1, e.getMessage());
+            }
+            if (record == null) {
+                break;
+            }
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            long rowNumber = ++context.received;
+            try {
+                context.accept(rowNumber, ProductImportRow.builder()
+                        .name(column(record, columns, "name"))
+                        .description(column(record, columns, "description"))
+                        .price(parseDecimal(column(record, columns, "price")))
+                        .stock(parseInteger(column(record, columns, "stock")))
+                        .imageUrl(column(record, columns, "imageUrl"))
+                        .categoryId(parseLong(column(record, columns, "categoryId")))
+                        .build());
+            } catch (NumberFormatException e) {
+                context.reject(rowNumber, "Invalid number: " + e.getMessage());
+            }
+        }
+
+        return context.finish();
+    }
+
+    private ImportContext newContext() {
+        //chi 1 query lay toan bo id category de kiem tra khoa ngoai cho moi dong
+        return new ImportContext(categoryRepository.findAllIds());
+    }
+
+    private String validate(ProductImportRow row, Set<Long> categoryIds) {
+        if (row.getName() == null || row.getName().isBlank()) {
+            return "name is required";
+        }
+        if (row.getName().length() > MAX_TEXT_LENGTH) {
+            return "name must be at most " + MAX_TEXT_LENGTH + " characters";
+        }
+        if (row.getPrice() == null) {
+            return "price is required";
+        }
+        if (row.getPrice().signum() < 0 || row.getPrice().setScale(2, RoundingMode.HALF_UP).compareTo(MAX_PRICE) > 0) {
+            return "price must be between 0 and " + MAX_PRICE;
+        }
+        if (row.getStock() != null && row.getStock() < 0) {
+            return "stock must not be negative";
+        }
+        if (row.getImageUrl() != null && row.getImageUrl().length() > MAX_TEXT_LENGTH) {
+            return "imageUrl must be at most " + MAX_TEXT_LENGTH + " characters";
+        }
+        if (row.getCategoryId() != null && !categoryIds.contains(row.getCategoryId())) {
+            return "Category not found with id: " + row.getCategoryId();
+        }
+        return null;
+    }
+
+    //JDBC batch khong di qua Hibernate listener nen tu ghi audit, giong StockServiceImpl.commit
+    private void audit(ProductImportRow row, Object id, Timestamp now) {
+        if (!(id instanceof Number number)) {
+            return;
+        }
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("name", row.getName());
+        values.put("description", row.getDescription());
+        values.put("price", row.getPrice());
+        values.put("stock", row.getStock() != null ? row.getStock() : 0);
+        values.put("imageUrl", row.getImageUrl());
+        values.put("category", row.getCategoryId());
+        values.put("createdAt", now.toLocalDateTime());
+        values.put("updatedAt", now.toLocalDateTime());
+        auditQueue.offer(AuditEvent.of("Product", number.longValue(), AuditAction.CREATE, values));
+    }
+
+    private static void bind(PreparedStatement ps, ProductImportRow row, Timestamp now) throws SQLException {
+        ps.setString(1, row.getName());
+        ps.setString(2, row.getDescription());
+        ps.setBigDecimal(3, row.getPrice());
+        ps.setInt(4, row.getStock() != null ? row.getStock() : 0);
+        ps.setString(5, row.getImageUrl());
+        if (row.getCategoryId() != null) {
+            ps.setLong(6, row.getCategoryId());
+        } else {
+            ps.setNull(6, Types.BIGINT);
+        }
+        ps.setTimestamp(7, now);
+        ps.setTimestamp(8, now);
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private static BigDecimal parseDecimal(String value) {
+        return value == null ? null : new BigDecimal(value.trim());
+    }
+
+    private static Integer parseInteger(String value) {
+        return value == null ? null : Integer.valueOf(value.trim());
+    }
+
+    private static Long parseLong(String value) {
+        return value == null ? null : Long.valueOf(value.trim());
+    }
+
+    /**
+     * Mutable state of one import request: the pending batch, counters and collected errors.
+     */
+    private final class ImportContext {
+
+        private final Set<Long> categoryIds;
+        private final List<ProductImportRow> batch = new ArrayList<>(batchSize);
+        private final List<Long> batchRowNumbers = new ArrayList<>(batchSize);
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private final long startNanos = System.nanoTime();
+        private final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        private long received;
+        private long imported;
+        private long failed;
+        private boolean aborted;
+
+        private ImportContext(Set<Long> categoryIds) {
+            this.categoryIds = categoryIds;
+        }
+
+        private void accept(long rowNumber, ProductImportRow row) {
+            String error = validate(row, categoryIds);
+            if (error != null) {
+                reject(rowNumber, error);
+                return;
+            }
+            batch.add(row);
+            batchRowNumbers.add(rowNumber);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void reject(long rowNumber, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportRowError(rowNumber, message));
+            }
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            try {
+                if (auditEnabled) {
+                    GeneratedKeyHolder keys = new GeneratedKeyHolder();
+                    transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                            connection -> connection.prepareStatement(INSERT_SQL, ID_COLUMN),
+                            new BatchPreparedStatementSetter() {
+                                @Override
+                                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                                    bind(ps, batch.get(i), now);
+                                }
+
+                                @Override
+                                public int getBatchSize() {
+                                    return batch.size();
+                                }
+                            }, keys));
+                    List<Map<String, Object>> ids = keys.getKeyList();
+                    for (int i = 0; i < ids.size(); i++) {
+                        audit(batch.get(i), ids.get(i).get("id"), now);
+                    }
+                } else {
+                    transactionTemplate.executeWithoutResult(status ->
+                            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, row) -> bind(ps, row, now)));
+                }
+                imported += batch.size();
+            } catch (DataAccessException e) {
+                log.warn("Import batch of {} rows failed, retrying row by row: {}", batch.size(), e.getMostSpecificCause().getMessage());
+                for (int i = 0; i < batch.size(); i++) {
+                    ProductImportRow row = batch.get(i);
+                    try {
+                        GeneratedKeyHolder key = new GeneratedKeyHolder();
+                        jdbcTemplate.update(connection -> {
+                            PreparedStatement ps = connection.prepareStatement(INSERT_SQL, ID_COLUMN);
+                            bind(ps, row, now);
+                            return ps;
+                        }, key);
+                        imported++;
+                        if (auditEnabled) {
+                            audit(row, key.getKey(), now);
+                        }
+                    } catch (DataAccessException rowError) {
+                        reject(batchRowNumbers.get(i), rowError.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+            batch.clear();
+            batchRowNumbers.clear();
+        }
+
+        /**
+         * Stop at a structural error in the body (truncated or malformed JSON, broken CSV quoting).
+         * Before anything was committed the request is rejected as a whole; afterwards the rows read so far
+         * are written and the result reports where the import stopped, so a retry can skip the imported rows.
+         */
+        private BulkImportResult abort(long rowNumber, String message) {
+            String error = "Import aborted at row " + rowNumber + ": " + message;
+            if (imported == 0) {
+                throw new IllegalArgumentException(error + " (nothing was imported)");
+            }
+            flush();
+            received = Math.max(received, rowNumber);
+            failed++;
+            //luon giu loi nay, ke ca khi da du max-errors
+            errors.add(new ImportRowError(rowNumber, error));
+            aborted = true;
+            return finish();
+        }
+
+        private BulkImportResult finish() {
+            flush();
+            long elapsedMillis = Math.max(1L, (System.nanoTime() - startNanos) / 1_000_000L);
+            long rowsPerSecond = imported * 1000L / elapsedMillis;
+            log.info("Product import finished: received={}, imported={}, failed={}, aborted={}, {} ms ({} rows/s)",
+                    received, imported, failed, aborted, elapsedMillis, rowsPerSecond);
+            if (imported > 0) {
+                eventPublisher.publishEvent(new CatalogVersion.ProductsChanged());
+            }
+
+            return BulkImportResult.builder()
+                    .received(received)
+                    .imported(imported)
+                    .failed(failed)
+                    .elapsedMillis(elapsedMillis)
+                    .rowsPerSecond(rowsPerSecond)
+                    .errors(errors)
+                    .aborted(aborted)
+                    .build();
+        }
+    }
+}
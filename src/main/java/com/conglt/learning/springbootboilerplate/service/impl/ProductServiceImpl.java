@@ -1,24 +1,63 @@
 package com.conglt.learning.springbootboilerplate.service.impl;
 
+import com.conglt.learning.springbootboilerplate.configuration.CacheConfiguration;
+import com.conglt.learning.springbootboilerplate.dto.CursorPage;
+import com.conglt.learning.springbootboilerplate.dto.ProductListCriteria;
+import com.conglt.learning.springbootboilerplate.dto.ProductSearchCriteria;
+import com.conglt.learning.springbootboilerplate.dto.ProductSort;
+import com.conglt.learning.springbootboilerplate.dto.ProductView;
 import com.conglt.learning.springbootboilerplate.model.Category;
 import com.conglt.learning.springbootboilerplate.model.Product;
 import com.conglt.learning.springbootboilerplate.repository.CategoryRepository;
+import com.conglt.learning.springbootboilerplate.repository.ProductListRepository;
 import com.conglt.learning.springbootboilerplate.repository.ProductRepository;
+import com.conglt.learning.springbootboilerplate.repository.ProductSearchRepository;
+import com.conglt.learning.springbootboilerplate.repository.TableChangeCounterRepository;
 import com.conglt.learning.springbootboilerplate.service.ProductService;
+import com.conglt.learning.springbootboilerplate.util.CursorUtils;
 import lombok.RequiredArgsConstructor;
-import org.springframework.stereotype.Repository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 
+    private static final Pattern SEARCH_TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAX_SEARCH_LENGTH = 200;
+    private static final int MAX_SEARCH_TOKENS = 8;
+
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final StockLedger stockLedger;
+    private final ProductSearchRepository productSearchRepository;
+    private final CategoryTreeSnapshot categoryTreeSnapshot;
+    private final ProductListRepository productListRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TableChangeCounterRepository tableChangeCounterRepository;
+
+    @Value("${product.pagination.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${product.pagination.max-size:500}")
+    private int maxPageSize;
 
     @Override
+    //form web gui kem id de sua san pham -> xoa ban cache cu nhu updateProduct
+    @CacheEvict(cacheNames = CacheConfiguration.PRODUCTS, key = "#product.id", condition = "#product.id != null")
     public Product createProduct(Product product) {
         //neu product gui len co category thi minh phai kiem tra xem category do co ton tai hay khong
         if (product.getCategory() != null && product.getCategory().getId() != null) {
@@ -28,10 +67,18 @@ public class ProductServiceImpl implements ProductService {
             //gan category tim duoc vao product
             product.setCategory(category);
         }
-        return productRepository.save(product);
+        boolean existing = product.getId() != null;
+        Product saved = productRepository.save(product);
+        if (existing) {
+            //stock co the da bi sua qua form, ledger phai doc lai tu DB
+            stockLedger.invalidate(saved.getId());
+        }
+        eventPublisher.publishEvent(new CatalogVersion.ProductsChanged());
+        return saved;
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfiguration.PRODUCTS, key = "#id")
     public Product updateProduct(Long id, Product product) {
         //tim xem san pham cu co ton tai hay khong
         Product existingProduct = getProductById(id);
@@ -48,21 +95,129 @@ public class ProductServiceImpl implements ProductService {
             existingProduct.setCategory(category);
         }
         //luu lai
-        return productRepository.save(existingProduct);
+        Product saved = productRepository.save(existingProduct);
+        //stock co the da bi sua tay, ledger phai doc lai tu DB
+        stockLedger.invalidate(id);
+        eventPublisher.publishEvent(new CatalogVersion.ProductsChanged());
+        return saved;
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfiguration.PRODUCTS, key = "#id")
     public void deleteProduct(Long id) {
         //truoc khi xoa thi phai kiem tra no co ton tai hay khong
         if (!productRepository.existsById(id)) {
             throw new RuntimeException("Product not found with id: " + id);
         }
         productRepository.deleteById(id);
+        stockLedger.invalidate(id);
+        eventPublisher.publishEvent(new CatalogVersion.ProductsChanged());
+    }
+
+    @Override
+    public List<ProductView> getAllProducts() {
+        return productRepository.findAllViews();
+    }
+
+    @Override
+    public CursorPage<ProductView> getProductPage(String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        long afterId = CursorUtils.decodeId(cursor);
+
+        //lay du 1 dong de biet con trang tiep theo hay khong
+        List<ProductView> rows = productRepository.findPageAfter(afterId, Limit.of(pageSize + 1));
+        boolean hasNext = rows.size() > pageSize;
+        List<ProductView> items = hasNext ? rows.subList(0, pageSize) : rows;
+
+        return CursorPage.<ProductView>builder()
+                .items(items)
+                .size(items.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? CursorUtils.encodeId(items.get(items.size() - 1).getId()) : null)
+                .build();
+    }
+
+    @Override
+    public CursorPage<ProductView> getCategoryTreeProductPage(Long categoryId, String cursor, Integer size) {
+        //path cua cay con lay tu snapshot trong bo nho; danh muc vua tao o node khac thi doc DB
+        String descendantPath = categoryTreeSnapshot.descendantPath(categoryId);
+        if (descendantPath == null) {
+            Category category = categoryRepository.findById(categoryId)
+                    .orElseThrow(() -> new RuntimeException("Category not found with id: " + categoryId));
+            descendantPath = category.getPath() + category.getId() + "/";
+        }
+        int pageSize = resolvePageSize(size);
+        long afterId = CursorUtils.decodeId(cursor);
+
+        List<ProductView> rows = productRepository.findSubtreePageAfter(categoryId, descendantPath,
+                CategoryTreeSnapshot.pathRangeEnd(descendantPath), afterId, Limit.of(pageSize + 1));
+        boolean hasNext = rows.size() > pageSize;
+        List<ProductView> items = hasNext ? rows.subList(0, pageSize) : rows;
+
+        return CursorPage.<ProductView>builder()
+                .items(items)
+                .size(items.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? CursorUtils.encodeId(items.get(items.size() - 1).getId()) : null)
+                .build();
+    }
+
+    @Override
+    public CursorPage<ProductView> getProductListPage(ProductListCriteria criteria) {
+        ProductSort sort = criteria.getSort() != null ? criteria.getSort() : ProductSort.ID_ASC;
+        int pageSize = resolvePageSize(criteria.getSize());
+        CursorUtils.SortedKey after = CursorUtils.decodeSorted(criteria.getCursor(), sort.name());
+
+        List<ProductView> rows = productListRepository.findPage(criteria, after, pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        List<ProductView> items = hasNext ? rows.subList(0, pageSize) : rows;
+        ProductView last = items.isEmpty() ? null : items.get(items.size() - 1);
+
+        return CursorPage.<ProductView>builder()
+                .items(items)
+                .size(items.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? CursorUtils.encodeSorted(sort.name(),
+                        ProductListRepository.sortValue(last, sort), last.getId()) : null)
+                .build();
+    }
+
+    @Override
+    public CursorPage<ProductView> searchProducts(ProductSearchCriteria criteria, String cursor, Integer size) {
+        String tsquery = toPrefixTsQuery(criteria.getQuery());
+        if (criteria.getMinPrice() != null && criteria.getMaxPrice() != null
+                && criteria.getMinPrice().compareTo(criteria.getMaxPrice()) > 0) {
+            throw new IllegalArgumentException("minPrice must not be greater than maxPrice");
+        }
+        int pageSize = resolvePageSize(size);
+        CursorUtils.RankedKey after = CursorUtils.decodeRanked(cursor);
+
+        List<ProductSearchRepository.Hit> rows = productSearchRepository.search(tsquery, criteria, after, pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        List<ProductSearchRepository.Hit> hits = hasNext ? rows.subList(0, pageSize) : rows;
+        ProductSearchRepository.Hit last = hits.isEmpty() ? null : hits.get(hits.size() - 1);
+
+        return CursorPage.<ProductView>builder()
+                .items(hits.stream().map(ProductSearchRepository.Hit::product).toList())
+                .size(hits.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? CursorUtils.encodeRanked(last.rank(), last.product().getId()) : null)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllProducts(Consumer<ProductView> consumer) {
+        //ProductView khong phai entity nen khong bi giu trong persistence context
+        try (Stream<ProductView> products = productRepository.streamAll()) {
+            products.forEach(consumer);
+        }
     }
 
     @Override
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    public long getCatalogDataVersion() {
+        return tableChangeCounterRepository.currentVersion(TableChangeCounterRepository.PRODUCTS,
+                TableChangeCounterRepository.CATEGORIES);
     }
 
     @Override
@@ -72,8 +227,40 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    public List<Product> getProductsByCategoryId(Long categoryId) {
+    @Cacheable(cacheNames = CacheConfiguration.PRODUCTS, key = "#id", sync = true)
+    public ProductView getProductViewById(Long id) {
+        return productRepository.findViewById(id).orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+    }
+
+    @Override
+    public List<ProductView> getProductsByCategoryId(Long categoryId) {
         //lay danh sach san pham theo categoryId
-        return productRepository.findByCategoryId(categoryId);
+        return productRepository.findViewsByCategoryId(categoryId);
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    //"lap pro" -> "lap:* & pro:*": moi tu deu khop theo tien to, chi giu chu va so nen khong can escape
+    private String toPrefixTsQuery(String query) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be empty");
+        }
+        if (query.length() > MAX_SEARCH_LENGTH) {
+            throw new IllegalArgumentException("Search query must not exceed " + MAX_SEARCH_LENGTH + " characters");
+        }
+        String tsquery = Arrays.stream(SEARCH_TOKEN_SEPARATOR.split(query.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .limit(MAX_SEARCH_TOKENS)
+                .map(token -> token + ":*")
+                .collect(Collectors.joining(" & "));
+        if (tsquery.isEmpty()) {
+            throw new IllegalArgumentException("Search query must contain letters or digits");
+        }
+        return tsquery;
     }
 }
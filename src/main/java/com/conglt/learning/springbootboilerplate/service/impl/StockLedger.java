@@ -0,0 +1,226 @@
+package com.conglt.learning.springbootboilerplate.service.impl;
+
+import com.conglt.learning.springbootboilerplate.dto.StockReservation;
+import com.conglt.learning.springbootboilerplate.exceptions.InsufficientStockException;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongFunction;
+
+/**
+ * In-memory ledger of open stock reservations.
+ * Reserving only touches memory: per-product state is guarded by one of a fixed set of striped locks,
+ * so reservations on different products never contend and a hot product never waits on a database row lock.
+ * The database is only written when a reservation is committed (see {@link StockServiceImpl}).
+ * Uses {@link ReentrantLock} rather than {@code synchronized} so waiting threads do not pin carrier threads.
+ * A product's entry is dropped once it has no open or committing reservations, so the ledger only holds
+ * products currently being reserved.
+ */
+@Component
+public class StockLedger {
+
+    private static final int STRIPES = 64;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    private final Map<Long, ProductStock> stocks = new ConcurrentHashMap<>();
+
+    private final Map<UUID, StockReservation> reservations = new ConcurrentHashMap<>();
+
+    public StockLedger() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Reserve units of a product if enough unreserved stock is left.
+     *
+     * @param productId     the product id
+     * @param quantity      units to reserve
+     * @param expiresAt     when the reservation lapses
+     * @param onHandLoader  loads the current stock from the database the first time a product is seen
+     * @return the new reservation
+     * @throws InsufficientStockException if on-hand minus already reserved stock is below quantity
+     */
+    public StockReservation reserve(Long productId, int quantity, Instant expiresAt, LongFunction<Integer> onHandLoader) {
+        ReentrantLock lock = lockFor(productId);
+        lock.lock();
+        try {
+            ProductStock stock = stocks.get(productId);
+            if (stock == null || !stock.loaded) {
+                //doc DB truoc khi tao entry: id khong ton tai thi loader nem loi, map khong giu entry rong
+                int onHand = onHandLoader.apply(productId);
+                if (stock == null) {
+                    stock = new ProductStock();
+                    stocks.put(productId, stock);
+                }
+                stock.onHand = onHand;
+                stock.loaded = true;
+            }
+            if (stock.onHand - stock.reserved < quantity) {
+                removeIfIdle(productId, stock);
+                throw new InsufficientStockException(productId, quantity);
+            }
+            stock.reserved += quantity;
+
+            StockReservation reservation = new StockReservation(UUID.randomUUID(), productId, quantity, expiresAt);
+            reservations.put(reservation.getId(), reservation);
+            return reservation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Atomically take an open reservation out of the ledger so only one caller can commit or release it.
+     * Its units stay counted as reserved until {@link #completeCommit} or {@link #abort} is called.
+     *
+     * @param reservationId the reservation id
+     * @return the reservation, or null if it does not exist (expired, committed or released)
+     */
+    public StockReservation take(UUID reservationId) {
+        return reservations.remove(reservationId);
+    }
+
+    /**
+     * Record that a taken reservation was written to the database.
+     *
+     * @param reservation a reservation returned by {@link #take}
+     */
+    public void completeCommit(StockReservation reservation) {
+        ReentrantLock lock = lockFor(reservation.getProductId());
+        lock.lock();
+        try {
+            ProductStock stock = stocks.get(reservation.getProductId());
+            if (stock != null) {
+                stock.reserved -= reservation.getQuantity();
+                stock.onHand -= reservation.getQuantity();
+                removeIfIdle(reservation.getProductId(), stock);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Give the units of a taken reservation back.
+     *
+     * @param reservation    a reservation returned by {@link #take}
+     * @param reloadOnHand   true if the cached on-hand stock proved wrong and must be re-read from the database
+     */
+    public void abort(StockReservation reservation, boolean reloadOnHand) {
+        ReentrantLock lock = lockFor(reservation.getProductId());
+        lock.lock();
+        try {
+            ProductStock stock = stocks.get(reservation.getProductId());
+            if (stock != null) {
+                stock.reserved -= reservation.getQuantity();
+                if (reloadOnHand) {
+                    stock.loaded = false;
+                }
+                removeIfIdle(reservation.getProductId(), stock);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forget the cached on-hand stock of a product, e.g. after its stock was edited directly.
+     * Open reservations are kept; the next reservation re-reads the stock from the database.
+     *
+     * @param productId the product id
+     */
+    public void invalidate(Long productId) {
+        ReentrantLock lock = lockFor(productId);
+        lock.lock();
+        try {
+            ProductStock stock = stocks.get(productId);
+            if (stock != null) {
+                stock.loaded = false;
+                removeIfIdle(productId, stock);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Release every reservation whose expiry is before the given instant.
+     *
+     * @param now the reference time
+     * @return the number of released reservations
+     */
+    public int releaseExpired(Instant now) {
+        List<UUID> expired = new ArrayList<>();
+        reservations.forEach((id, reservation) -> {
+            if (reservation.getExpiresAt().isBefore(now)) {
+                expired.add(id);
+            }
+        });
+
+        int released = 0;
+        for (UUID id : expired) {
+            StockReservation reservation = take(id);
+            if (reservation != null) {
+                abort(reservation, false);
+                released++;
+            }
+        }
+        return released;
+    }
+
+    /**
+     * Units currently held by open reservations for a product.
+     *
+     * @param productId the product id
+     * @return reserved units
+     */
+    public int reserved(Long productId) {
+        ReentrantLock lock = lockFor(productId);
+        lock.lock();
+        try {
+            ProductStock stock = stocks.get(productId);
+            return stock != null ? stock.reserved : 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of products the ledger currently holds state for (products with open or committing reservations).
+     *
+     * @return tracked products
+     */
+    public int trackedProducts() {
+        return stocks.size();
+    }
+
+    //khong con reservation nao (ke ca dang commit) thi bo entry, lan reserve sau doc lai stock tu DB;
+    //nho vay map chi giu san pham dang co reservation. Chi goi khi dang giu lock cua san pham
+    private void removeIfIdle(Long productId, ProductStock stock) {
+        if (stock.reserved == 0) {
+            stocks.remove(productId, stock);
+        }
+    }
+
+    private ReentrantLock lockFor(Long productId) {
+        return locks[(Long.hashCode(productId) & Integer.MAX_VALUE) % STRIPES];
+    }
+
+    /**
+     * Per-product counters, only read or written while holding the product's stripe lock.
+     */
+    private static final class ProductStock {
+        private boolean loaded;
+        private int onHand;
+        private int reserved;
+    }
+}
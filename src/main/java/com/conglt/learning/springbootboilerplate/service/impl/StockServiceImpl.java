@@ -0,0 +1,115 @@
+package com.conglt.learning.springbootboilerplate.service.impl;
+
+import com.conglt.learning.springbootboilerplate.audit.AuditAction;
+import com.conglt.learning.springbootboilerplate.audit.AuditEvent;
+import com.conglt.learning.springbootboilerplate.audit.AuditQueue;
+import com.conglt.learning.springbootboilerplate.configuration.CacheConfiguration;
+import com.conglt.learning.springbootboilerplate.dto.StockReservation;
+import com.conglt.learning.springbootboilerplate.exceptions.InsufficientStockException;
+import com.conglt.learning.springbootboilerplate.exceptions.ReservationNotFoundException;
+import com.conglt.learning.springbootboilerplate.repository.ProductRepository;
+import com.conglt.learning.springbootboilerplate.service.StockService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Stock reservation engine.
+ * Reservations are held in {@link StockLedger}; a commit applies
+ * {@code UPDATE products SET stock = stock - ? WHERE id = ? AND stock >= ?}, so the database never goes
+ * negative even if several application instances (each with its own ledger) commit concurrently.
+ */
+@Slf4j
+@Service
+public class StockServiceImpl implements StockService {
+
+    private final ProductRepository productRepository;
+    private final StockLedger stockLedger;
+    private final AuditQueue auditQueue;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration reservationTtl;
+
+    public StockServiceImpl(ProductRepository productRepository,
+                            StockLedger stockLedger,
+                            AuditQueue auditQueue,
+                            ApplicationEventPublisher eventPublisher,
+                            @Value("${stock.reservation.ttl:10m}") Duration reservationTtl) {
+        this.productRepository = productRepository;
+        this.stockLedger = stockLedger;
+        this.auditQueue = auditQueue;
+        this.eventPublisher = eventPublisher;
+        this.reservationTtl = reservationTtl;
+    }
+
+    @Override
+    public StockReservation reserve(Long productId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be at least 1");
+        }
+        return stockLedger.reserve(productId, quantity, Instant.now().plus(reservationTtl),
+                id -> productRepository.findStockById(id)
+                        .orElseThrow(() -> new RuntimeException("Product not found with id: " + id)));
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfiguration.PRODUCTS, key = "#result.productId")
+    public StockReservation commit(UUID reservationId) {
+        StockReservation reservation = stockLedger.take(reservationId);
+        if (reservation == null || reservation.getExpiresAt().isBefore(Instant.now())) {
+            if (reservation != null) {
+                stockLedger.abort(reservation, false);
+            }
+            throw new ReservationNotFoundException(reservationId);
+        }
+
+        int updated;
+        try {
+            updated = productRepository.decrementStock(reservation.getProductId(), reservation.getQuantity());
+        } catch (RuntimeException e) {
+            stockLedger.abort(reservation, true);
+            throw e;
+        }
+
+        if (updated == 0) {
+            //kho trong DB it hon ledger nghi (instance khac da tru, hoac admin sua stock)
+            stockLedger.abort(reservation, true);
+            throw new InsufficientStockException(reservation.getProductId(), reservation.getQuantity());
+        }
+
+        stockLedger.completeCommit(reservation);
+        //cau UPDATE bulk khong di qua Hibernate listener nen tu ghi audit
+        auditQueue.offer(AuditEvent.of("Product", reservation.getProductId(), AuditAction.UPDATE,
+                Map.of("stock", Map.of("delta", -reservation.getQuantity(),
+                        "reservationId", reservation.getId().toString()))));
+        eventPublisher.publishEvent(new CatalogVersion.ProductsChanged());
+        return reservation;
+    }
+
+    @Override
+    public void release(UUID reservationId) {
+        StockReservation reservation = stockLedger.take(reservationId);
+        if (reservation == null) {
+            throw new ReservationNotFoundException(reservationId);
+        }
+        stockLedger.abort(reservation, false);
+    }
+
+    /**
+     * Return the units of reservations that were neither committed nor released in time.
+     */
+    @Scheduled(fixedDelayString = "${stock.reservation.sweep-interval:30s}")
+    public void releaseExpiredReservations() {
+        int released = stockLedger.releaseExpired(Instant.now());
+        if (released > 0) {
+            log.info("Released {} expired stock reservations", released);
+        }
+    }
+}
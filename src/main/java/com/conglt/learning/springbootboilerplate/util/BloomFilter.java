@@ -0,0 +1,111 @@
+package com.conglt.learning.springbootboilerplate.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter of strings.
+ * {@link #mightContain(String)} never returns false for a value that was added; it returns true for a
+ * value that was not added with roughly the configured false-positive probability.
+ * Bits live in an {@link AtomicLongArray}, so concurrent {@link #put(String)} calls need no lock.
+ */
+public final class BloomFilter {
+
+    private static final long SEED_1 = 0x9E3779B97F4A7C15L;
+    private static final long SEED_2 = 0xC2B2AE3D27D4EB4FL;
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashFunctions;
+
+    /**
+     * @param expectedInsertions number of values the filter is sized for
+     * @param falsePositiveRate  wanted false-positive probability at that size, e.g. 0.01
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("expectedInsertions must be > 0 and falsePositiveRate in (0, 1)");
+        }
+        // m = -n ln p / (ln 2)^2, k = m/n ln 2
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (optimalBits + 63) / 64);
+        this.bits = new AtomicLongArray(Math.max(1, words));
+        this.bitCount = (long) bits.length() * 64;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * Add a value.
+     *
+     * @param value the value to add
+     */
+    public void put(String value) {
+        long h1 = hash(value, SEED_1);
+        long h2 = hash(value, SEED_2) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    /**
+     * @param value the value to test
+     * @return false if the value was definitely never added, true if it may have been
+     */
+    public boolean mightContain(String value) {
+        long h1 = hash(value, SEED_1);
+        long h2 = hash(value, SEED_2) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return bitCount;
+    }
+
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+
+    // 64-bit hash of the UTF-8 bytes: multiply-xorshift per 8-byte block, murmur3 finalizer
+    private static long hash(String value, long seed) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        long h = seed ^ (bytes.length * 0xFF51AFD7ED558CCDL);
+        int i = 0;
+        for (; i + 8 <= bytes.length; i += 8) {
+            long block = 0;
+            for (int j = 0; j < 8; j++) {
+                block |= (bytes[i + j] & 0xFFL) << (8 * j);
+            }
+            h = (h ^ mix(block)) * 0x9E3779B97F4A7C15L;
+        }
+        long tail = 0;
+        for (int j = 0; i + j < bytes.length; j++) {
+            tail |= (bytes[i + j] & 0xFFL) << (8 * j);
+        }
+        h = (h ^ mix(tail)) * 0x9E3779B97F4A7C15L;
+        return mix(h);
+    }
+
+    private static long mix(long k) {
+        k ^= k >>> 33;
+        k *= 0xFF51AFD7ED558CCDL;
+        k ^= k >>> 33;
+        k *= 0xC4CEB9FE1A85EC53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
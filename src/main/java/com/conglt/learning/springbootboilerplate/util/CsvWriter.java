@@ -0,0 +1,51 @@
+package com.conglt.learning.springbootboilerplate.util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Minimal RFC 4180 writer, the counterpart of {@link CsvReader}.
+ * Fields containing a comma, quote or line break are quoted; null is written as an empty field.
+ */
+public class CsvWriter {
+
+    private final Writer writer;
+
+    public CsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Write one record terminated by a line feed.
+     *
+     * @param fields the field values, converted with {@link String#valueOf(Object)}
+     * @throws IOException if writing fails
+     */
+    public void writeRecord(Object... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (fields[i] != null) {
+                writeField(String.valueOf(fields[i]));
+            }
+        }
+        writer.write('\n');
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void writeField(String value) throws IOException {
+        boolean needsQuotes = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,151 @@
+package com.conglt.learning.springbootboilerplate.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque continuation tokens used by keyset pagination.
+ * Clients must treat the token as opaque; the format may change between versions.
+ */
+public final class CursorUtils {
+
+    private static final String ID_PREFIX = "id:";
+    private static final String RANKED_PREFIX = "rk:";
+    private static final String SORTED_PREFIX = "sk:";
+
+    private CursorUtils() {
+    }
+
+    /**
+     * Encode the last seen id into a continuation token.
+     *
+     * @param lastId the id of the last item of the current page
+     * @return the opaque cursor
+     */
+    public static String encodeId(Long lastId) {
+        return encode(ID_PREFIX + lastId);
+    }
+
+    /**
+     * Decode a continuation token produced by {@link #encodeId(Long)}.
+     *
+     * @param cursor the opaque cursor, may be null or blank for the first page
+     * @return the last seen id, or 0 when no cursor is given
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static long decodeId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        String raw = decode(cursor);
+        if (!raw.startsWith(ID_PREFIX)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        try {
+            return Long.parseLong(raw.substring(ID_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Encode the sort key of the last item of a relevance-ordered page.
+     *
+     * @param rank   the relevance of the last item
+     * @param lastId the id of the last item, used as tie-breaker
+     * @return the opaque cursor
+     */
+    public static String encodeRanked(float rank, Long lastId) {
+        return encode(RANKED_PREFIX + Float.toString(rank) + ":" + lastId);
+    }
+
+    /**
+     * Decode a continuation token produced by {@link #encodeRanked(float, Long)}.
+     *
+     * @param cursor the opaque cursor, may be null or blank for the first page
+     * @return the last seen rank and id, or null when no cursor is given
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static RankedKey decodeRanked(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String raw = decode(cursor);
+        int separator = raw.lastIndexOf(':');
+        if (!raw.startsWith(RANKED_PREFIX) || separator <= RANKED_PREFIX.length()) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        try {
+            float rank = Float.parseFloat(raw.substring(RANKED_PREFIX.length(), separator));
+            long id = Long.parseLong(raw.substring(separator + 1));
+            if (!Float.isFinite(rank)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new RankedKey(rank, id);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Position in a listing ordered by rank descending, then id ascending.
+     */
+    public record RankedKey(float rank, long id) {
+    }
+
+    /**
+     * Encode the sort key of the last item of a page ordered by some column, then id.
+     *
+     * @param sort   the name of the sort order, checked again when decoding
+     * @param value  the sort column value of the last item (null when sorting by id only)
+     * @param lastId the id of the last item, used as tie-breaker
+     * @return the opaque cursor
+     */
+    public static String encodeSorted(String sort, String value, Long lastId) {
+        return encode(SORTED_PREFIX + sort + ":" + (value != null ? value : "") + ":" + lastId);
+    }
+
+    /**
+     * Decode a continuation token produced by {@link #encodeSorted(String, String, Long)}.
+     *
+     * @param cursor the opaque cursor, may be null or blank for the first page
+     * @param sort   the sort order of the requested page
+     * @return the last seen value and id, or null when no cursor is given
+     * @throws IllegalArgumentException if the cursor is malformed or belongs to another sort order
+     */
+    public static SortedKey decodeSorted(String cursor, String sort) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String raw = decode(cursor);
+        String prefix = SORTED_PREFIX + sort + ":";
+        int separator = raw.lastIndexOf(':');
+        if (!raw.startsWith(prefix) || separator < prefix.length()) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        try {
+            String value = raw.substring(prefix.length(), separator);
+            return new SortedKey(value.isEmpty() ? null : value, Long.parseLong(raw.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Position in a listing ordered by a column value, then id.
+     */
+    public record SortedKey(String value, long id) {
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
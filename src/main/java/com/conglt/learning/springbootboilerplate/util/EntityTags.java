@@ -0,0 +1,79 @@
+package com.conglt.learning.springbootboilerplate.util;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+
+/**
+ * Helpers for conditional GET: strong ETags built from a resource's identity and version, and responses
+ * that answer {@code 304 Not Modified} before the body is produced and serialized.
+ */
+public final class EntityTags {
+
+    /**
+     * Clients may store responses but must revalidate them (with If-None-Match) before every use.
+     */
+    public static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private EntityTags() {
+    }
+
+    /**
+     * Build a strong ETag, e.g. {@code "p-42-1718000000123456"}.
+     */
+    public static String of(Object... parts) {
+        StringJoiner joiner = new StringJoiner("-", "\"", "\"");
+        for (Object part : parts) {
+            joiner.add(String.valueOf(part));
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * @return the timestamp in microseconds, the precision of PostgreSQL, or 0 when it is null
+     */
+    public static long micros(LocalDateTime timestamp) {
+        return timestamp != null
+                ? timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + timestamp.getNano() / 1_000L
+                : 0L;
+    }
+
+    /**
+     * @return the timestamp as epoch millis for Last-Modified, or -1 (no header) when it is null
+     */
+    public static long lastModified(LocalDateTime timestamp) {
+        return timestamp != null ? timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1L;
+    }
+
+    /**
+     * @return a short hex digest of a value, for tags that depend on a field without its own version
+     */
+    public static String digest(Object value) {
+        return Integer.toHexString(Objects.hashCode(value));
+    }
+
+    /**
+     * Answer 304 if the client's If-None-Match / If-Modified-Since still matches, otherwise 200 with the body.
+     * The ETag and Last-Modified headers are set in both cases; the body is only produced on a 200.
+     *
+     * @param request      the current request
+     * @param etag         the strong ETag of the current version
+     * @param lastModified epoch millis of the last change, or -1 if unknown
+     * @param body         supplies the body when the client's copy is stale
+     */
+    public static <T> ResponseEntity<T> conditional(WebRequest request, String etag, long lastModified,
+                                                    Supplier<T> body) {
+        if (request.checkNotModified(etag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(body.get());
+    }
+}
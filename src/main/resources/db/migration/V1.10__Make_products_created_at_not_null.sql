@@ -0,0 +1,11 @@
+-- V1.10__Make_products_created_at_not_null.sql
+-- Keyset "mới nhất" so sánh (created_at, id): một dòng created_at NULL làm cả trang sau bị bỏ qua
+-- NOT NULL thay vì coalesce(...) trong câu truy vấn để vẫn dùng được idx_products_created_at (V1.8)
+
+UPDATE products
+SET created_at = COALESCE(updated_at, CURRENT_TIMESTAMP)
+WHERE created_at IS NULL;
+
+ALTER TABLE products
+    ALTER COLUMN created_at SET DEFAULT CURRENT_TIMESTAMP,
+    ALTER COLUMN created_at SET NOT NULL;
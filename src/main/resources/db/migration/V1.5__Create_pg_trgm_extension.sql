@@ -0,0 +1,8 @@
+-- V1.5__Create_pg_trgm_extension.sql
+-- Install the trigram extension used for fuzzy product name matching
+
+-- Trigram similarity functions and GIN/GiST operator classes
+CREATE EXTENSION IF NOT EXISTS "pg_trgm";
+
+-- Comments for documentation
+COMMENT ON EXTENSION "pg_trgm" IS 'Trigram similarity for fuzzy text matching';
@@ -0,0 +1,18 @@
+-- V1.6__Add_products_search_indexes.sql
+-- Full-text and fuzzy search over products
+
+-- tsvector do database tự tính lại mỗi khi name/description thay đổi
+-- dùng cấu hình 'simple' (không stemming) để tên sản phẩm, mã hàng, tiếng Việt không bị biến đổi
+-- trọng số: name = A, description = B
+ALTER TABLE products
+    ADD COLUMN search_vector TSVECTOR
+        GENERATED ALWAYS AS (
+            setweight(to_tsvector('simple', coalesce(name, '')), 'A') ||
+            setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+        ) STORED;
+
+-- GIN index cho truy vấn @@ (full-text, prefix)
+CREATE INDEX idx_products_search_vector ON products USING GIN (search_vector);
+
+-- GIN trigram index cho toán tử % (gõ sai chính tả) trên tên sản phẩm
+CREATE INDEX idx_products_name_trgm ON products USING GIN (name gin_trgm_ops);
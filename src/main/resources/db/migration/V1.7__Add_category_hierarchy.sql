@@ -0,0 +1,17 @@
+-- V1.7__Add_category_hierarchy.sql
+-- Cây danh mục: parent_id + materialized path
+
+-- path = đường dẫn id của các danh mục cha, ví dụ '/1/5/' (gốc là '/'), depth = số cấp cha
+-- collation "C" để so sánh theo byte: cây con của danh mục 5 nằm dưới '/1/5/' là một khoảng liên tục
+-- path >= '/1/5/' AND path < '/1/50' trên btree, không phụ thuộc locale
+ALTER TABLE categories
+    ADD COLUMN parent_id BIGINT,
+    ADD COLUMN path      VARCHAR(1000) COLLATE "C" NOT NULL DEFAULT '/',
+    ADD COLUMN depth     INTEGER                   NOT NULL DEFAULT 0,
+    ADD CONSTRAINT fk_categories_parent FOREIGN KEY (parent_id) REFERENCES categories (id);
+
+CREATE INDEX idx_categories_parent_id ON categories (parent_id);
+CREATE INDEX idx_categories_path ON categories (path);
+
+-- sản phẩm của cả cây con: quét khoảng path trên categories rồi tra products theo category_id
+CREATE INDEX idx_products_category_id ON products (category_id);
@@ -0,0 +1,14 @@
+-- V1.8__Add_products_access_path_indexes.sql
+-- Index cho các đường truy cập sản phẩm: theo danh mục, sắp xếp theo giá, theo ngày tạo
+
+-- (category_id, id): lọc theo danh mục + keyset theo id, kiểm tra khoá ngoại khi xoá danh mục
+-- thay thế idx_products_category_id (V1.7) vì cột đầu giống nhau
+CREATE INDEX idx_products_category_id_id ON products (category_id, id);
+DROP INDEX IF EXISTS idx_products_category_id;
+
+-- (category_id, price, id): sản phẩm của một danh mục sắp xếp theo giá, id làm khoá phụ cho keyset
+CREATE INDEX idx_products_category_id_price ON products (category_id, price, id);
+
+-- sắp xếp theo giá / ngày tạo trên toàn bộ sản phẩm
+CREATE INDEX idx_products_price ON products (price, id);
+CREATE INDEX idx_products_created_at ON products (created_at, id);
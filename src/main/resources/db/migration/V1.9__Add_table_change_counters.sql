@@ -0,0 +1,41 @@
+-- V1.9__Add_table_change_counters.sql
+-- Bộ đếm thay đổi cho từng bảng, dùng làm ETag cho các API danh sách (If-None-Match -> 304)
+
+-- mỗi bảng có 16 dòng (stripe): các transaction ghi song song (vd. trừ kho) không phải chờ khoá trên cùng một dòng
+-- version của bảng = tổng version các stripe, chỉ tăng, chỉ thấy được sau khi transaction commit
+CREATE TABLE table_change_counters
+(
+    table_name VARCHAR(63) NOT NULL,
+    stripe     SMALLINT    NOT NULL,
+    version    BIGINT      NOT NULL DEFAULT 0,
+    PRIMARY KEY (table_name, stripe)
+);
+
+INSERT INTO table_change_counters (table_name, stripe)
+SELECT t.table_name, s.stripe
+FROM (VALUES ('products'), ('categories')) AS t(table_name)
+         CROSS JOIN generate_series(0, 15) AS s(stripe);
+
+-- trigger mức câu lệnh: một câu UPDATE/INSERT hàng loạt chỉ tăng bộ đếm một lần
+CREATE OR REPLACE FUNCTION bump_table_change_counter() RETURNS TRIGGER AS
+$$
+BEGIN
+    UPDATE table_change_counters
+    SET version = version + 1
+    WHERE table_name = TG_TABLE_NAME
+      AND stripe = pg_backend_pid() % 16;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_products_change_counter
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE
+    ON products
+    FOR EACH STATEMENT
+EXECUTE FUNCTION bump_table_change_counter();
+
+CREATE TRIGGER trg_categories_change_counter
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE
+    ON categories
+    FOR EACH STATEMENT
+EXECUTE FUNCTION bump_table_change_counter();
@@ -0,0 +1,55 @@
+package com.conglt.learning.springbootboilerplate.configuration;
+
+import com.conglt.learning.springbootboilerplate.metrics.StatementInspectingDataSource;
+import com.conglt.learning.springbootboilerplate.threading.ConnectionLimitingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.annotation.UserConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Virtual-thread mode together with query diagnostics: the statement-inspecting wrapper is applied first,
+ * and the connection limit must still be sized from the Hikari pool underneath it.
+ * The pool is never started, so no database is needed.
+ */
+class VirtualThreadConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(UserConfigurations.of(QueryDiagnosticsConfiguration.class,
+                    VirtualThreadConfiguration.class))
+            .withPropertyValues("spring.threads.virtual.enabled=true", "virtual-threads.pinning.enabled=false")
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withBean("dataSource", DataSource.class, () -> {
+                HikariDataSource hikari = new HikariDataSource();
+                hikari.setMaximumPoolSize(25);
+                return hikari;
+            });
+
+    @Test
+    void connectionLimitUsesPoolSizeOfWrappedHikariDataSource() {
+        contextRunner.run(context -> {
+            DataSource dataSource = context.getBean("dataSource", DataSource.class);
+
+            ConnectionLimitingDataSource limited = assertInstanceOf(ConnectionLimitingDataSource.class, dataSource);
+            assertTrue(limited.isWrapperFor(StatementInspectingDataSource.class));
+            assertEquals(25, limited.getMaxPermits());
+        });
+    }
+
+    @Test
+    void explicitMaxConcurrencyWins() {
+        contextRunner.withPropertyValues("virtual-threads.jdbc.max-concurrency=7").run(context -> {
+            ConnectionLimitingDataSource limited = assertInstanceOf(ConnectionLimitingDataSource.class,
+                    context.getBean("dataSource", DataSource.class));
+            assertEquals(7, limited.getMaxPermits());
+        });
+    }
+}
@@ -0,0 +1,322 @@
+package com.conglt.learning.springbootboilerplate.repository;
+
+import com.conglt.learning.springbootboilerplate.dto.ProductListCriteria;
+import com.conglt.learning.springbootboilerplate.dto.ProductSort;
+import com.conglt.learning.springbootboilerplate.util.CursorUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.flyway.autoconfigure.FlywayMigrationStrategy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Query plan regression check for the selective {@link ProductRepository} and {@link CategoryRepository} queries.
+ * <p>
+ * Runs only with {@code QUERY_PLAN_TEST=true}, against the PostgreSQL configured by {@code POSTGRES_*}:
+ * the migrations are applied to a throw-away schema, 10,100 categories and 300,000 products are seeded,
+ * and each repository call is made for real. The SQL and bind values it sends are captured and replayed
+ * under {@code EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON)} in a rolled-back transaction; a Seq Scan on
+ * {@code products} or {@code categories} fails the case. Whole-table reads (findAll, streamAll, ...) are not checked.
+ * <pre>
+ * QUERY_PLAN_TEST=true ./gradlew test --tests '*QueryPlanTest'
+ * </pre>
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:postgresql://${POSTGRES_HOST:localhost}:${POSTGRES_PORT:5432}/"
+                + "${POSTGRES_DB:springboot_crud}?currentSchema=" + QueryPlanTest.SCHEMA + ",public",
+        "spring.flyway.schemas=" + QueryPlanTest.SCHEMA,
+        "spring.flyway.default-schema=" + QueryPlanTest.SCHEMA,
+        "spring.flyway.clean-disabled=false",
+        "spring.jpa.properties.hibernate.default_schema=" + QueryPlanTest.SCHEMA,
+        "audit.enabled=false",
+        "query-diagnostics.enabled=false",
+        "spring.threads.virtual.enabled=false"
+})
+@Import(QueryPlanTest.CaptureConfiguration.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfEnvironmentVariable(named = "QUERY_PLAN_TEST", matches = "true")
+class QueryPlanTest {
+
+    static final String SCHEMA = "query_plan_test";
+
+    private static final int ROOT_CATEGORIES = 100;
+    private static final int CHILDREN_PER_ROOT = 100;
+    private static final int PRODUCTS = 300_000;
+    private static final Set<String> CHECKED_TABLES = Set.of("products", "categories");
+
+    private static final long ROOT_ID = 1L;
+    private static final long CHILD_ID = ROOT_CATEGORIES + 50L;
+    private static final long PRODUCT_ID = 150_000L;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductListRepository productListRepository;
+
+    @Autowired
+    private CapturingDataSource capturingDataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("INSERT INTO categories (name, path, depth) "
+                + "SELECT 'Root ' || g, '/', 0 FROM generate_series(1, ?) g", ROOT_CATEGORIES);
+        jdbcTemplate.update("INSERT INTO categories (name, parent_id, path, depth) "
+                + "SELECT 'Child ' || r.id || '-' || g, r.id, '/' || r.id || '/', 1 "
+                + "FROM categories r CROSS JOIN generate_series(1, ?) g WHERE r.parent_id IS NULL", CHILDREN_PER_ROOT);
+        jdbcTemplate.update("INSERT INTO products (name, description, price, stock, category_id, created_at, updated_at) "
+                + "SELECT 'Product ' || g, 'Description of product ' || g, (1 + random() * 999)::numeric(10, 2), "
+                + "(random() * 100)::int, 1 + g % ?, now() - g * interval '1 minute', now() "
+                + "FROM generate_series(1, ?) g", ROOT_CATEGORIES * (CHILDREN_PER_ROOT + 1), PRODUCTS);
+        jdbcTemplate.execute("ANALYZE categories");
+        jdbcTemplate.execute("ANALYZE products");
+    }
+
+    @TestFactory
+    Stream<DynamicTest> selectiveQueriesUseIndexes() {
+        return Stream.of(
+                planCase("ProductRepository.findById", () -> productRepository.findById(PRODUCT_ID)),
+                planCase("ProductRepository.findViewById", () -> productRepository.findViewById(PRODUCT_ID)),
+                planCase("ProductRepository.findByCategoryId", () -> productRepository.findByCategoryId(CHILD_ID)),
+                planCase("ProductRepository.findViewsByCategoryId",
+                        () -> productRepository.findViewsByCategoryId(CHILD_ID)),
+                planCase("ProductRepository.findPageAfter",
+                        () -> productRepository.findPageAfter(PRODUCT_ID, Limit.of(51))),
+                planCase("ProductRepository.findSubtreePageAfter",
+                        () -> productRepository.findSubtreePageAfter(ROOT_ID, "/1/", "/10", 0L, Limit.of(51))),
+                planCase("ProductListRepository.findPage by price in category",
+                        () -> productListRepository.findPage(ProductListCriteria.builder()
+                                .categoryId(CHILD_ID).sort(ProductSort.PRICE_ASC).build(),
+                                new CursorUtils.SortedKey("500.00", PRODUCT_ID), 51)),
+                planCase("ProductListRepository.findPage newest",
+                        () -> productListRepository.findPage(ProductListCriteria.builder()
+                                .sort(ProductSort.NEWEST).build(), null, 51)),
+                planCase("ProductListRepository.findPage by name",
+                        () -> productListRepository.findPage(ProductListCriteria.builder()
+                                .name("1234").build(), null, 51)),
+                planCase("ProductRepository.findStockById", () -> productRepository.findStockById(PRODUCT_ID)),
+                planCase("ProductRepository.decrementStock", () -> productRepository.decrementStock(PRODUCT_ID, 1)),
+                planCase("CategoryRepository.findById", () -> categoryRepository.findById(CHILD_ID)),
+                planCase("CategoryRepository.existsByParentId", () -> categoryRepository.existsByParentId(ROOT_ID)),
+                planCase("CategoryRepository.moveDescendants",
+                        () -> categoryRepository.moveDescendants("/1/", "/10", 1, "/2/", 0)),
+                // khong phai query cua repository: kiem tra khoa ngoai khi xoa danh muc va cac kieu sap xep moi
+                sqlCase("FK check on category delete",
+                        "SELECT 1 FROM products WHERE category_id = ? FOR KEY SHARE", CHILD_ID),
+                sqlCase("Category products by price",
+                        "SELECT id, name, price FROM products WHERE category_id = ? ORDER BY price, id LIMIT 50", CHILD_ID),
+                sqlCase("Newest products",
+                        "SELECT id, name, created_at FROM products ORDER BY created_at DESC, id DESC LIMIT 50"),
+                sqlCase("Cheapest products",
+                        "SELECT id, name, price FROM products ORDER BY price, id LIMIT 50")
+        );
+    }
+
+    private DynamicTest planCase(String name, Runnable repositoryCall) {
+        return DynamicTest.dynamicTest(name, () -> {
+            capturingDataSource.captured.clear();
+            capturingDataSource.capturing = true;
+            try {
+                // chay that trong transaction roi rollback, ke ca cac cau UPDATE
+                transactionTemplate.executeWithoutResult(status -> {
+                    repositoryCall.run();
+                    status.setRollbackOnly();
+                });
+            } finally {
+                capturingDataSource.capturing = false;
+            }
+            List<CapturedStatement> statements = new ArrayList<>(capturingDataSource.captured);
+            assertFalse(statements.isEmpty(), name + " did not reach the database");
+            for (CapturedStatement statement : statements) {
+                assertNoSequentialScan(name, statement);
+            }
+        });
+    }
+
+    private DynamicTest sqlCase(String name, String sql, Object... parameters) {
+        return DynamicTest.dynamicTest(name, () -> {
+            List<Binding> bindings = new ArrayList<>();
+            Method setObject = PreparedStatement.class.getMethod("setObject", int.class, Object.class);
+            for (int i = 0; i < parameters.length; i++) {
+                bindings.add(new Binding(setObject, new Object[]{i + 1, parameters[i]}));
+            }
+            assertNoSequentialScan(name, new CapturedStatement(sql, bindings));
+        });
+    }
+
+    private void assertNoSequentialScan(String name, CapturedStatement statement) throws Exception {
+        String sql = statement.sql().trim().toLowerCase(Locale.ROOT);
+        if (!sql.startsWith("select") && !sql.startsWith("update") && !sql.startsWith("delete")
+                && !sql.startsWith("with")) {
+            return;
+        }
+        JsonNode plan = explain(statement);
+        List<String> seqScans = new ArrayList<>();
+        collectSequentialScans(plan.path(0).path("Plan"), seqScans);
+        if (!seqScans.isEmpty()) {
+            fail(name + " scans " + seqScans + " sequentially.\nSQL: " + statement.sql()
+                    + "\nPlan: " + plan.toPrettyString());
+        }
+        assertTrue(plan.path(0).has("Execution Time"), "EXPLAIN ANALYZE output expected");
+    }
+
+    private JsonNode explain(CapturedStatement statement) throws Exception {
+        try (Connection connection = capturingDataSource.getTargetConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement explain = connection.prepareStatement(
+                    "EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + statement.sql())) {
+                for (Binding binding : statement.bindings()) {
+                    binding.method().invoke(explain, binding.args());
+                }
+                try (ResultSet resultSet = explain.executeQuery()) {
+                    resultSet.next();
+                    return objectMapper.readTree(resultSet.getString(1));
+                }
+            } finally {
+                connection.rollback();
+            }
+        }
+    }
+
+    private static void collectSequentialScans(JsonNode node, List<String> seqScans) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())
+                && CHECKED_TABLES.contains(node.path("Relation Name").asText())) {
+            seqScans.add(node.path("Relation Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSequentialScans(child, seqScans);
+        }
+    }
+
+    private record Binding(Method method, Object[] args) {
+    }
+
+    private record CapturedStatement(String sql, List<Binding> bindings) {
+    }
+
+    @TestConfiguration
+    static class CaptureConfiguration {
+
+        @Bean
+        static BeanPostProcessor capturingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && !(bean instanceof CapturingDataSource)
+                            ? new CapturingDataSource(dataSource)
+                            : bean;
+                }
+            };
+        }
+
+        //lam sach schema truoc moi lan chay de du lieu seed luon giong nhau (thay cho strategy cua FlywayConfiguration)
+        @Bean
+        @Primary
+        FlywayMigrationStrategy cleanMigrateStrategy() {
+            return flyway -> {
+                flyway.clean();
+                flyway.migrate();
+            };
+        }
+    }
+
+    /**
+     * Records the SQL and bind calls of every prepared statement executed while {@code capturing} is set.
+     */
+    static class CapturingDataSource extends DelegatingDataSource {
+
+        final List<CapturedStatement> captured = new CopyOnWriteArrayList<>();
+        volatile boolean capturing;
+
+        CapturingDataSource(DataSource target) {
+            super(target);
+        }
+
+        Connection getTargetConnection() throws SQLException {
+            return getTargetDataSource().getConnection();
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        if ("prepareStatement".equals(method.getName()) && result instanceof PreparedStatement ps) {
+                            return capture(ps, (String) args[0]);
+                        }
+                        return result;
+                    });
+        }
+
+        private PreparedStatement capture(PreparedStatement statement, String sql) {
+            List<Binding> bindings = new ArrayList<>();
+            InvocationHandler handler = (proxy, method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    bindings.add(new Binding(method, args.clone()));
+                } else if ("clearParameters".equals(name)) {
+                    bindings.clear();
+                } else if (name.startsWith("execute") && capturing) {
+                    captured.add(new CapturedStatement(sql, List.copyOf(bindings)));
+                }
+                return invoke(statement, method, args);
+            };
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, handler);
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
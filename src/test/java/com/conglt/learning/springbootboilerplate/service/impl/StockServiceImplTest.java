@@ -0,0 +1,148 @@
+package com.conglt.learning.springbootboilerplate.service.impl;
+
+import com.conglt.learning.springbootboilerplate.audit.AuditQueue;
+import com.conglt.learning.springbootboilerplate.dto.StockReservation;
+import com.conglt.learning.springbootboilerplate.exceptions.InsufficientStockException;
+import com.conglt.learning.springbootboilerplate.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Stress test for the reservation engine: many threads reserve and commit the same product
+ * and the stock must never be oversold.
+ * The repository is mocked with an {@link AtomicInteger} whose compare-and-set mirrors the
+ * conditional {@code UPDATE ... WHERE stock >= ?} issued by {@link ProductRepository#decrementStock}.
+ */
+class StockServiceImplTest {
+
+    private static final long PRODUCT_ID = 1L;
+    private static final int INITIAL_STOCK = 1_000;
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS_PER_THREAD = 500;
+
+    private AtomicInteger dbStock;
+    private ProductRepository productRepository;
+    private AuditQueue auditQueue;
+
+    @BeforeEach
+    void setUp() {
+        dbStock = new AtomicInteger(INITIAL_STOCK);
+        productRepository = mock(ProductRepository.class);
+        auditQueue = new AuditQueue(new SimpleMeterRegistry(), 100_000, Duration.ZERO);
+        when(productRepository.findStockById(anyLong())).thenAnswer(inv -> Optional.of(dbStock.get()));
+        when(productRepository.decrementStock(anyLong(), anyInt())).thenAnswer(inv -> {
+            int quantity = inv.getArgument(1);
+            while (true) {
+                int current = dbStock.get();
+                if (current < quantity) {
+                    return 0;
+                }
+                if (dbStock.compareAndSet(current, current - quantity)) {
+                    return 1;
+                }
+            }
+        });
+    }
+
+    @Test
+    void concurrentReserveAndCommitNeverOversells() throws Exception {
+        StockLedger ledger = new StockLedger();
+        StockServiceImpl stockService = new StockServiceImpl(productRepository, ledger, auditQueue, event -> { }, Duration.ofMinutes(5));
+
+        AtomicInteger committedUnits = runContention(List.of(stockService));
+
+        assertEquals(INITIAL_STOCK, committedUnits.get() + dbStock.get());
+        assertEquals(0, dbStock.get(), "demand exceeds supply, so every unit should be sold");
+        assertEquals(0, ledger.trackedProducts(), "no open reservations, so no product state should be kept");
+    }
+
+    @Test
+    void separateLedgersSharingOneDatabaseNeverOversell() throws Exception {
+        //hai instance ung dung, moi instance co ledger rieng, chi chung DB
+        StockServiceImpl first = new StockServiceImpl(productRepository, new StockLedger(), auditQueue, event -> { }, Duration.ofMinutes(5));
+        StockServiceImpl second = new StockServiceImpl(productRepository, new StockLedger(), auditQueue, event -> { }, Duration.ofMinutes(5));
+
+        AtomicInteger committedUnits = runContention(List.of(first, second));
+
+        assertTrue(dbStock.get() >= 0);
+        assertEquals(INITIAL_STOCK, committedUnits.get() + dbStock.get());
+    }
+
+    @Test
+    void releasedUnitsCanBeReservedAgain() {
+        StockLedger ledger = new StockLedger();
+        StockServiceImpl stockService = new StockServiceImpl(productRepository, ledger, auditQueue, event -> { }, Duration.ofMinutes(5));
+
+        StockReservation all = stockService.reserve(PRODUCT_ID, INITIAL_STOCK);
+        assertThrows(InsufficientStockException.class, () -> stockService.reserve(PRODUCT_ID, 1));
+
+        stockService.release(all.getId());
+        assertEquals(0, ledger.reserved(PRODUCT_ID));
+        stockService.commit(stockService.reserve(PRODUCT_ID, 1).getId());
+        assertEquals(INITIAL_STOCK - 1, dbStock.get());
+        assertEquals(0, ledger.trackedProducts());
+    }
+
+    private AtomicInteger runContention(List<StockServiceImpl> services) throws Exception {
+        AtomicInteger committedUnits = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                StockServiceImpl service = services.get(t % services.size());
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        int quantity = 1 + random.nextInt(3);
+                        StockReservation reservation;
+                        try {
+                            reservation = service.reserve(PRODUCT_ID, quantity);
+                        } catch (InsufficientStockException e) {
+                            continue;
+                        }
+                        if (random.nextInt(4) == 0) {
+                            service.release(reservation.getId());
+                            continue;
+                        }
+                        try {
+                            service.commit(reservation.getId());
+                            committedUnits.addAndGet(quantity);
+                        } catch (InsufficientStockException e) {
+                            //instance khac da ban truoc, DB tu choi
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return committedUnits;
+    }
+}